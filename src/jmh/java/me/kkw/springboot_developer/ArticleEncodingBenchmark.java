@@ -0,0 +1,72 @@
+package me.kkw.springboot_developer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.dto.AddArticleRequest;
+import me.kkw.springboot_developer.dto.ArticleResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+* 글 API의 JSON / CBOR / Smile 인코딩 비용 비교
+* 앱과 같은 DTO(ArticleResponse, AddArticleRequest)를 같은 방식(Jackson2ObjectMapperBuilder)으로 만든 매퍼로 인코딩/디코딩한다
+* - encode: ArticleResponse -> byte[] (응답)
+* - decode: byte[] -> AddArticleRequest (요청)
+* 인코딩 결과의 크기는 벤치마크를 시작할 때 한 번 출력한다
+*
+* ./gradlew jmh
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ArticleEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"200", "4000"})
+    public int contentLength;
+
+    private ObjectMapper mapper;
+    private ArticleResponse response;
+    private byte[] encodedRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException("unknown format: " + format);
+        };
+
+        String content = "마크다운 본문 *강조* 와 [링크](https://example.com) ".repeat(contentLength / 40 + 1)
+                .substring(0, contentLength);
+        Article article = Article.builder()
+                .author("user@example.com")
+                .title("JSON 대신 CBOR로 보내면 얼마나 줄어들까")
+                .content(content)
+                .build();
+        response = new ArticleResponse(article);
+        encodedRequest = mapper.writeValueAsBytes(
+                new AddArticleRequest(article.getTitle(), content, List.of("jackson", "cbor", "smile")));
+
+        System.out.printf("%n[%s, content %d] response %d bytes, request %d bytes%n",
+                format, contentLength, mapper.writeValueAsBytes(response).length, encodedRequest.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public AddArticleRequest decode() throws Exception {
+        return mapper.readValue(encodedRequest, AddArticleRequest.class);
+    }
+}
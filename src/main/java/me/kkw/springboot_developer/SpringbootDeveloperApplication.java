@@ -3,6 +3,7 @@ package me.kkw.springboot_developer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /*
 * @EnableJpaAuditing
@@ -15,7 +16,12 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 * @CreatedDate나 @LastModifiedDate 같은 애노테이션이 붙은 필드에 현재 시간을 자동으로 채운다.
 *
 * createdAt이나 updatedAt 같은 필드를 매번 서비스 로직에서 LocalDateTime.now() 등으로 직접 설정해 줄 필요가 없다.
+*
+* @EnableScheduling
+* @Scheduled가 붙은 메소드를 찾아서 주기적으로 실행해 준다.
+* 만료된 리프레시 토큰 정리 같은 백그라운드 작업에 사용한다.
 */
+@EnableScheduling
 @EnableJpaAuditing
 @SpringBootApplication
 public class SpringbootDeveloperApplication {
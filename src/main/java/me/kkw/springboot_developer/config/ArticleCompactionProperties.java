@@ -0,0 +1,27 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+* 삭제된 글(tombstone) 정리 작업 설정, article.compaction.* 으로 채워진다
+* - cron: 작업 시각, 트래픽이 적은 새벽으로 둔다 (@Scheduled에서 직접 읽는다)
+* - retention: 삭제된 뒤 이 시간이 지난 글만 지운다 (변경 동기화 클라이언트가 tombstone을 받아갈 시간)
+* - batch-size: 한 트랜잭션에서 지우는 글 수
+* - max-batches-per-run: 한 번 실행할 때 처리할 최대 배치 수, 한가한 시간을 넘기지 않게 한다
+*/
+@Setter
+@Getter
+@ConfigurationProperties("article.compaction")
+@Component
+public class ArticleCompactionProperties {
+
+    private String cron = "0 0 4 * * *";
+    private Duration retention = Duration.ofDays(7);
+    private int batchSize = 500;
+    private int maxBatchesPerRun = 100;
+}
@@ -0,0 +1,25 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/*
+* NDJSON 글 가져오기 설정, article.import.* 으로 채워진다
+* - batch-size: 한 트랜잭션, 한 JDBC 배치로 넣는 글 수
+* - progress-interval: 이 개수만큼 읽을 때마다 진행 상황을 로그로 남긴다
+* - max-reported-errors: 응답에 담는 실패 줄 수의 상한, 파일이 커도 응답 크기가 일정하게 유지된다
+* - max-title-length: title 컬럼 길이
+*/
+@Setter
+@Getter
+@ConfigurationProperties("article.import")
+@Component
+public class ArticleImportProperties {
+
+    private int batchSize = 500;
+    private int progressInterval = 100000;
+    private int maxReportedErrors = 100;
+    private int maxTitleLength = 255;
+}
@@ -0,0 +1,25 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+* 변경 동기화 설정, article.sync.* 으로 채워진다
+* - max-page-size: 한 번에 내려주는 최대 변경 수
+* - settle-time: 지금부터 이만큼 안쪽의 변경은 내려주지 않고 다음 동기화로 미룬다
+*   updated_at은 커밋 시각이 아니라 UPDATE 시각이라서, 아직 커밋 중인 트랜잭션의 변경을 놓치지 않으려고 기다리는 시간이다
+*   쓰기 트랜잭션이 이보다 오래 걸리면 그 변경은 놓칠 수 있다
+*/
+@Setter
+@Getter
+@ConfigurationProperties("article.sync")
+@Component
+public class ArticleSyncProperties {
+
+    private int maxPageSize = 500;
+    private Duration settleTime = Duration.ofSeconds(10);
+}
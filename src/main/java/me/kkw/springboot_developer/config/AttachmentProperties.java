@@ -0,0 +1,28 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/*
+* 첨부 파일 설정, attachment.* 으로 채워진다
+* - storage-path: 파일 저장 폴더 (AttachmentStore 참고)
+* - max-size: 파일 하나의 최대 크기
+* - orphan-grace-period: 아무도 가리키지 않는 파일을 지우기 전에 기다리는 시간
+* - sweep-cron: 고아 파일 정리 작업이 도는 시각 (AttachmentSweepService 참고)
+*/
+@Setter
+@Getter
+@ConfigurationProperties("attachment")
+@Component
+public class AttachmentProperties {
+
+    private String storagePath = "./data/attachments";
+    private DataSize maxSize = DataSize.ofMegabytes(50);
+    private Duration orphanGracePeriod = Duration.ofHours(1);
+    private String sweepCron = "0 30 4 * * *";
+}
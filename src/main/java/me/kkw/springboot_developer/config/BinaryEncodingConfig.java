@@ -0,0 +1,36 @@
+package me.kkw.springboot_developer.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/*
+* JSON 말고 바이너리 인코딩(CBOR, Smile)으로도 API를 주고받을 수 있게 하는 설정
+*
+* 서비스끼리 호출할 때는 사람이 읽을 필요가 없어서, 필드 이름/숫자를 바이너리로 쓰면 직렬화 CPU와 전송량이 준다.
+* 같은 DTO를 같은 잭슨 설정(스프링 부트의 Jackson2ObjectMapperBuilder)으로 쓰고 JsonFactory만 바꾼다.
+* - Accept: application/cbor 또는 application/x-jackson-smile 이면 그 형식으로 응답
+* - Content-Type이 위 형식이면 @RequestBody도 그 형식으로 읽는다
+*
+* 스프링 부트는 기본 컨버터와 같은 종류의 빈을 그 자리에 끼워 넣기 때문에 JSON 컨버터보다 뒤에 있다.
+* 그래서 Accept가 없거나 아무 형식이나 받는 기존 클라이언트는 지금처럼 JSON을 받는다.
+*/
+@Configuration
+public class BinaryEncodingConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
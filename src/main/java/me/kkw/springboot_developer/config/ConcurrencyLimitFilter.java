@@ -0,0 +1,145 @@
+package me.kkw.springboot_developer.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/*
+* 동시에 처리하는 요청 수를 제한하는 서블릿 필터
+*
+* 톰캣은 요청을 제한 없이 받아서 스레드에 올리는데, 그 요청들이 작은 JDBC 커넥션 풀을 두고 줄을 서면
+* CPU는 남아도는데 응답 시간만 계속 늘어난다.
+* 이 필터는 경로 종류(인증 / 읽기 / 쓰기)마다 GradientConcurrencyLimit 한도를 따로 두고,
+* 한도를 넘는 요청은 기다리게 하지 않고 바로 503(Retry-After: 1)으로 돌려보낸다.
+* 종류별로 나눴기 때문에 쓰기가 몰려도 읽기나 로그인은 자기 한도 안에서 계속 처리된다.
+*
+* 스프링 시큐리티보다 앞(HIGHEST_PRECEDENCE)에서 돌아서 거절할 요청은 인증 처리 비용도 들지 않는다.
+* 정적 파일, H2 콘솔, actuator는 DB를 쓰지 않아서 제한하지 않는다.
+* 첨부 파일 업로드/다운로드도 걸리는 시간이 서버 상태가 아니라 클라이언트 전송 속도에 달려 있어서
+* 응답 시간 샘플을 흐리지 않도록 제한에서 뺀다.
+* 대량 가져오기(/api/articles/import)는 요청 하나가 쓰기 트랜잭션을 계속 이어서 여는데 걸리는 시간은 파일 크기에 달려 있다.
+* 그래서 쓰기 한도와 섞지 않고 IMPORT로 따로 두고, 한도는 min = max로 고정해서 응답 시간에 따라 움직이지 않게 한다.
+*
+* 메트릭 (route 태그: auth, read, write, import)
+* - http.concurrency.limit: 지금 한도
+* - http.concurrency.in_flight: 처리 중인 요청 수
+* - http.concurrency.rejected: 503으로 거절한 요청 수
+*/
+@ConditionalOnProperty(prefix = "concurrency-limit", name = "enabled", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public enum RouteClass {
+        AUTH, READ, WRITE, IMPORT
+    }
+
+    private static final Set<String> AUTH_PATHS = Set.of("/api/token", "/login", "/logout", "/signup", "/user");
+    private static final Set<String> UNLIMITED_PREFIXES = Set.of(
+            "/css/", "/js/", "/img/", "/static/", "/favicon.ico", "/h2-console", "/actuator",
+            "/api/attachments/");
+    private static final String IMPORT_PATH = "/api/articles/import";
+
+    private final Map<RouteClass, GradientConcurrencyLimit> limits = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        for (RouteClass route : RouteClass.values()) {
+            ConcurrencyLimitProperties.RouteLimit routeLimit = switch (route) {
+                case AUTH -> properties.getAuth();
+                case READ -> properties.getRead();
+                case WRITE -> properties.getWrite();
+                case IMPORT -> properties.getBulkImport();
+            };
+            GradientConcurrencyLimit limit = new GradientConcurrencyLimit(routeLimit.getInitial(),
+                    routeLimit.getMin(), routeLimit.getMax(),
+                    properties.getSmoothing(), properties.getTolerance(), properties.getWindowSize());
+            String tag = route.name().toLowerCase();
+
+            limits.put(route, limit);
+            rejected.put(route, meterRegistry.counter("http.concurrency.rejected", "route", tag));
+            Gauge.builder("http.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                    .tag("route", tag)
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrency.in_flight", limit, GradientConcurrencyLimit::getInFlight)
+                    .tag("route", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteClass route = classify(request);
+
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        GradientConcurrencyLimit limit = limits.get(route);
+        if (!limit.tryAcquire()) {
+            rejected.get(route).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    public GradientConcurrencyLimit getLimit(RouteClass route) {
+        return limits.get(route);
+    }
+
+    // 제한하지 않는 경로면 null
+    static RouteClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        for (String prefix : UNLIMITED_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return null;
+            }
+        }
+
+        if (path.endsWith("/attachments") && HttpMethod.POST.matches(request.getMethod())) {
+            return null;
+        }
+
+        if (path.equals(IMPORT_PATH)) {
+            return RouteClass.IMPORT;
+        }
+
+        if (AUTH_PATHS.contains(path) || path.startsWith("/oauth2/") || path.startsWith("/login/")) {
+            return RouteClass.AUTH;
+        }
+
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)) {
+            return RouteClass.READ;
+        }
+        return RouteClass.WRITE;
+    }
+}
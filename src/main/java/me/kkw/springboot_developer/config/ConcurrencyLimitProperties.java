@@ -0,0 +1,48 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/*
+* 동시 요청 수 제한 설정, concurrency-limit.* 으로 채워진다 (ConcurrencyLimitFilter 참고)
+* - enabled: false면 필터를 등록하지 않는다
+* - smoothing: 새로 계산한 한도를 얼마나 빨리 반영할지 (0~1, 클수록 빠르다)
+* - tolerance: 평소보다 응답이 이 배수만큼 느려지기 전까지는 한도를 줄이지 않는다
+* - window-size: 응답 시간 샘플 몇 개의 평균으로 한도를 다시 계산할지
+* - auth / read / write: 경로 종류별 한도의 처음 값(initial), 최소(min), 최대(max)
+* - bulk-import: 대량 가져오기 한도, 세 값을 같게 두면 고정 한도다
+*/
+@Setter
+@Getter
+@ConfigurationProperties("concurrency-limit")
+@Component
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private double smoothing = 0.2;
+    private double tolerance = 1.5;
+    private int windowSize = 20;
+    private RouteLimit auth = new RouteLimit(10, 2, 50);
+    private RouteLimit read = new RouteLimit(20, 4, 200);
+    private RouteLimit write = new RouteLimit(10, 2, 100);
+    private RouteLimit bulkImport = new RouteLimit(2, 2, 2);
+
+    @Setter
+    @Getter
+    public static class RouteLimit {
+        private int initial;
+        private int min;
+        private int max;
+
+        public RouteLimit() {
+        }
+
+        public RouteLimit(int initial, int min, int max) {
+            this.initial = initial;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
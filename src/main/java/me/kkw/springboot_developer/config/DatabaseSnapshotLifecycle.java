@@ -0,0 +1,70 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.kkw.springboot_developer.service.DatabaseSnapshotService;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+* 기동할 때 스냅샷을 복원하고 종료할 때 스냅샷을 남긴다 (snapshot.path가 있을 때만)
+*
+* SmartLifecycle의 phase가 낮을수록 먼저 시작하고 나중에 멈춘다.
+* 웹 서버보다 낮은 phase(0)라서 요청을 받기 전에 복원이 끝나고,
+* 종료할 때는 웹 서버가 먼저 멈춘 다음 (더 이상 쓰기가 없을 때) 내보낸다.
+* data.sql은 이보다 먼저 실행되지만 복원하면서 지워진다.
+*/
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class DatabaseSnapshotLifecycle implements SmartLifecycle {
+
+    private final DatabaseSnapshotService databaseSnapshotService;
+    private final SnapshotProperties snapshotProperties;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        Path path = snapshotPath();
+
+        if (path != null && snapshotProperties.isRestoreOnStartup() && Files.exists(path)) {
+            databaseSnapshotService.restore(path);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        Path path = snapshotPath();
+
+        try {
+            if (path != null && snapshotProperties.isExportOnShutdown()) {
+                databaseSnapshotService.export(path);
+            }
+        } catch (RuntimeException e) {
+            // 종료는 막지 않는다, 이전 스냅샷 파일은 그대로 남아 있다
+            log.error("snapshot export failed", e);
+        } finally {
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private Path snapshotPath() {
+        String path = snapshotProperties.getPath();
+        return path == null || path.isBlank() ? null : Path.of(path);
+    }
+}
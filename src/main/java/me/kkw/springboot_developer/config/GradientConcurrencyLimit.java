@@ -0,0 +1,116 @@
+package me.kkw.springboot_developer.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+* 응답 시간으로 적당한 동시 요청 수(한도)를 추정하는 gradient 방식 한도
+*
+* 동시 요청이 DB 커넥션 풀 같은 자원이 감당할 수 있는 수를 넘으면 처리량은 그대로인데 기다리는 시간만 늘어난다.
+* 그래서 응답 시간의 변화로 자원이 밀리기 시작했는지를 본다.
+* - longRtt: 오래 본 평균 응답 시간 (느리게 따라가는 지수 이동 평균), 여유 있을 때의 기준값
+* - shortRtt: 최근 window-size개 샘플의 평균
+* - gradient = tolerance * longRtt / shortRtt 를 0.5~1.0으로 자른 값
+*   최근 응답이 평소와 비슷하면 1.0이라 한도가 sqrt(한도)만큼 늘고, 느려지면 1보다 작아져서 한도가 줄어든다
+* - 새 한도 = 한도 * gradient + sqrt(한도), smoothing 만큼만 반영하고 min~max로 자른다
+* 처리 중인 요청이 한도의 절반도 안 되면 자원이 아니라 요청이 적어서 빠른 것이니 한도를 바꾸지 않는다.
+*
+* tryAcquire()는 CAS 한 번이라 거절이 빠르고, 한도 계산은 window-size개 샘플마다 한 번만 한다.
+*/
+public class GradientConcurrencyLimit {
+
+    // longRtt가 따라가는 속도, 약 600개 window의 평균
+    private static final double LONG_RTT_FACTOR = 2.0 / 601;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final int windowSize;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // 아래 값들은 onSample()의 synchronized 안에서만 바뀐다
+    private double estimatedLimit;
+    private double longRtt;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    double smoothing, double tolerance, int windowSize) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("invalid limit range: " + minLimit + "~" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.windowSize = Math.max(1, windowSize);
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    // 한도 안이면 자리를 하나 차지하고 true, 꽉 찼으면 바로 false
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // 요청이 끝나면 걸린 시간과 함께 자리를 돌려준다
+    public void release(long rttNanos) {
+        int inFlightAtEnd = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtEnd);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtEnd) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtEnd);
+
+        if (windowCount < windowSize) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttSum / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) * LONG_RTT_FACTOR;
+        }
+
+        // 부하가 빠진 뒤에도 longRtt가 느린 값에 오래 머물지 않게 빨리 끌어내린다
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
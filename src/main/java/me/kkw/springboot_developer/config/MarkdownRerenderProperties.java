@@ -0,0 +1,23 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/*
+* 마크다운 다시 렌더링 작업 설정, article.markdown.rerender.* 으로 채워진다
+* - batch-size: 한 트랜잭션에서 다시 렌더링하는 본문 수
+* - max-batches-per-run: 한 번 실행할 때 처리할 최대 배치 수
+* - fixed-delay: 작업이 끝난 뒤 다음 작업까지 기다리는 시간(ms), @Scheduled에서 직접 읽는다
+*/
+@Setter
+@Getter
+@ConfigurationProperties("article.markdown.rerender")
+@Component
+public class MarkdownRerenderProperties {
+
+    private int batchSize = 200;
+    private int maxBatchesPerRun = 50;
+    private long fixedDelay = 60000;
+}
@@ -0,0 +1,31 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+* 아웃박스 릴레이 설정, outbox.relay.* 으로 채워진다
+* - enabled: false면 릴레이를 띄우지 않는다 (OutboxRelayService의 @ConditionalOnProperty에서 직접 읽는다)
+* - batch-size: 한 번에 가져가서 전달하는 이벤트 수
+* - max-batches-per-run: 한 번 실행할 때 처리할 최대 배치 수, 밀린 이벤트가 많으면 쉬지 않고 이어서 보낸다
+* - fixed-delay: 실행이 끝난 뒤 다음 실행까지 기다리는 시간(ms), @Scheduled에서 직접 읽는다
+* - lease: 가져간 이벤트를 이 시간 안에 전달하지 못하면 다른 실행이 다시 가져간다
+* - file-path: 채우면 이벤트를 이 파일에 NDJSON으로 덧붙인다 (FileOutboxSink)
+*/
+@Setter
+@Getter
+@ConfigurationProperties("outbox.relay")
+@Component
+public class OutboxRelayProperties {
+
+    private boolean enabled = true;
+    private int batchSize = 500;
+    private int maxBatchesPerRun = 20;
+    private long fixedDelay = 200;
+    private Duration lease = Duration.ofSeconds(30);
+    private String filePath;
+}
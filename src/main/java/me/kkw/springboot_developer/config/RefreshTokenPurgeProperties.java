@@ -0,0 +1,22 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/*
+* refresh_token 테이블 정리 작업 설정
+* application.yml의 refresh-token.purge 아래 값들이 채워진다
+* - batch-size: 한 트랜잭션에서 훑는 토큰 수 (기본키 순서로 batch-size개씩)
+* - fixed-delay: 작업이 끝난 뒤 다음 작업까지 기다리는 시간(ms), @Scheduled에서 직접 읽는다
+*/
+@Setter
+@Getter
+@ConfigurationProperties("refresh-token.purge")
+@Component
+public class RefreshTokenPurgeProperties {
+
+    private int batchSize = 1000;
+    private long fixedDelay = 600000;
+}
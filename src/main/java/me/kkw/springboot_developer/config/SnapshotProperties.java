@@ -0,0 +1,32 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+* DB 스냅샷 설정 (DatabaseSnapshotService 참고)
+* application.yml의 snapshot 아래 값들이 채워진다
+* - path: 스냅샷 파일 경로, 비어 있으면 스냅샷 기능을 쓰지 않는다
+* - restore-on-startup: 기동할 때 파일이 있으면 복원한다
+* - export-on-shutdown: 종료할 때 파일로 내보낸다
+* - batch-size: 복원할 때 한 번에 보내는 INSERT 개수
+* - tables: 내보낼 테이블, 외래키가 가리키는 테이블이 먼저 와야 한다
+*   (첨부 파일 내용은 attachment.storage-path 폴더에 그대로 남아 있어서 attachment 행만 담는다)
+*/
+@Setter
+@Getter
+@ConfigurationProperties("snapshot")
+@Component
+public class SnapshotProperties {
+
+    private String path;
+    private boolean restoreOnStartup = true;
+    private boolean exportOnShutdown = true;
+    private int batchSize = 1000;
+    private List<String> tables = List.of("users", "refresh_token", "tag",
+            "article_body", "article", "article_tag", "article_revision", "comment", "attachment", "outbox_event");
+}
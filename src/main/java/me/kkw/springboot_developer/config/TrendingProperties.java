@@ -0,0 +1,31 @@
+package me.kkw.springboot_developer.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+* 인기 글(trending) 설정, article.trending.* 으로 채워진다
+* - window: 조회 수를 세는 구간 하나의 길이
+* - windows: 들고 있는 구간 수, window * windows 동안의 조회만 반영된다
+* - decay: 한 구간 오래될 때마다 곱하는 가중치, 최근 조회일수록 점수가 크다
+* - capacity: 구간마다 세는 글의 수 (SpaceSavingSketch 카운터 수)
+* - size: 응답에 담는 인기 글 수
+* - refresh-interval: 인기 글 목록을 다시 계산하는 주기(ms), @Scheduled에서 직접 읽는다
+*/
+@Setter
+@Getter
+@ConfigurationProperties("article.trending")
+@Component
+public class TrendingProperties {
+
+    private Duration window = Duration.ofMinutes(10);
+    private int windows = 6;
+    private double decay = 0.5;
+    private int capacity = 256;
+    private int size = 10;
+    private long refreshInterval = 5000;
+}
@@ -3,6 +3,7 @@ package me.kkw.springboot_developer.config;
 import lombok.RequiredArgsConstructor;
 import me.kkw.springboot_developer.config.jwt.JwtProperties;
 import me.kkw.springboot_developer.config.jwt.TokenProvider;
+import me.kkw.springboot_developer.service.TokenRevocationService;
 import me.kkw.springboot_developer.service.UserDetailService;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -26,8 +27,8 @@ public class WebSecurityConfig {
     private final UserDetailService userService;
 
     @Bean
-    public TokenProvider tokenProvider(JwtProperties jwtProperties) {
-        return new TokenProvider(jwtProperties);
+    public TokenProvider tokenProvider(JwtProperties jwtProperties, TokenRevocationService tokenRevocationService) {
+        return new TokenProvider(jwtProperties, tokenRevocationService);
     }
 
     // 스프링 시큐리티의 기능 비활성화 영역
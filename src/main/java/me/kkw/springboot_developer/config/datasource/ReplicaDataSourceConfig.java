@@ -0,0 +1,77 @@
+package me.kkw.springboot_developer.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/*
+* 읽기/쓰기 분리 DataSource 설정
+*
+* datasource.replica.url이 있을 때만 동작한다.
+* 스프링 부트가 만들던 DataSource 대신 아래 구조의 DataSource를 @Primary로 등록한다.
+*
+* LazyConnectionDataSourceProxy -> ReplicationRoutingDataSource -> primary / replica 커넥션 풀
+*
+* JPA, 트랜잭션 매니저, data.sql 초기화는 모두 @Primary DataSource를 쓰기 때문에
+* 서비스 코드는 @Transactional(readOnly = true)만 붙이면 레플리카에서 읽는다.
+*/
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties replicaProperties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaProperties.getUrl())
+                .username(replicaProperties.getUsername())
+                .password(replicaProperties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        dataSource.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicationRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") HikariDataSource replicaDataSource) {
+        return new ReplicationRoutingDataSource(primaryDataSource, replicaDataSource);
+    }
+
+    @Primary
+    @Bean
+    public DataSource dataSource(ReplicationRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicationRoutingDataSource routingDataSource,
+                                               @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                               ReplicaDataSourceProperties replicaProperties) {
+        return new ReplicaLagMonitor(routingDataSource, replicaDataSource,
+                replicaProperties.getLagQuery(), replicaProperties.getMaxLag());
+    }
+}
@@ -0,0 +1,28 @@
+package me.kkw.springboot_developer.config.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/*
+* 읽기 레플리카 설정, datasource.replica.* 으로 채워진다
+* url이 없으면 레플리카 라우팅 자체가 꺼지고 예전처럼 spring.datasource 하나만 쓴다
+* - max-lag: 이보다 뒤처진 레플리카로는 읽기를 보내지 않는다
+* - lag-query: 레플리카의 지연 시간(초)을 돌려주는 쿼리
+* - lag-check-interval: 지연 확인 주기(ms), ReplicaLagMonitor의 @Scheduled에서 읽는다
+*/
+@Setter
+@Getter
+@ConfigurationProperties("datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    private Duration maxLag = Duration.ofSeconds(5);
+    private String lagQuery = "SELECT 0";
+    private long lagCheckInterval = 5000;
+}
@@ -0,0 +1,46 @@
+package me.kkw.springboot_developer.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/*
+* 레플리카의 복제 지연을 주기적으로 확인하는 작업
+*
+* lag-query는 레플리카에서 실행되고 지연 시간을 초 단위 숫자로 돌려줘야 한다.
+* (예: PostgreSQL은 EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()))
+* 지연이 max-lag보다 크거나 쿼리가 실패하면 읽기를 프라이머리로 돌리고,
+* 다시 따라잡으면 레플리카로 되돌린다.
+*/
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final ReplicationRoutingDataSource routingDataSource;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(ReplicationRoutingDataSource routingDataSource, DataSource replica,
+                             String lagQuery, Duration maxLag) {
+        this.routingDataSource = routingDataSource;
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:5000}")
+    public void check() {
+        try {
+            Double lagSeconds = replicaJdbcTemplate.queryForObject(lagQuery, Double.class);
+            boolean withinTolerance = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+
+            routingDataSource.setReplicaAvailable(withinTolerance);
+        } catch (RuntimeException e) {
+            log.warn("replica lag check failed", e);
+            routingDataSource.setReplicaAvailable(false);
+        }
+    }
+}
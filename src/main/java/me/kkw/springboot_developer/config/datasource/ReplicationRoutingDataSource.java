@@ -0,0 +1,69 @@
+package me.kkw.springboot_developer.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/*
+* 읽기 전용 트랜잭션은 레플리카로, 나머지는 프라이머리로 보내는 DataSource
+*
+* @Transactional(readOnly = true)로 시작한 트랜잭션이면 REPLICA, 아니면 PRIMARY를 고른다.
+* 트랜잭션이 시작되는 순간에는 아직 readOnly 여부가 정해지지 않았기 때문에
+* 반드시 LazyConnectionDataSourceProxy로 감싸서 첫 SQL을 실행할 때 커넥션을 고르게 해야 한다.
+*
+* 레플리카가 너무 뒤처졌거나(ReplicaLagMonitor) 커넥션을 얻지 못하면
+* replicaAvailable을 내려서 읽기도 프라이머리로 보낸다.
+*/
+@Slf4j
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private volatile boolean replicaAvailable = true;
+
+    public ReplicationRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            if (determineCurrentLookupKey() != Route.REPLICA) {
+                throw e;
+            }
+
+            log.warn("replica connection failed, falling back to primary", e);
+            setReplicaAvailable(false);
+            return getResolvedDefaultDataSource().getConnection();
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public void setReplicaAvailable(boolean replicaAvailable) {
+        if (this.replicaAvailable != replicaAvailable) {
+            log.info("replica routing {}", replicaAvailable ? "enabled" : "disabled");
+        }
+        this.replicaAvailable = replicaAvailable;
+    }
+}
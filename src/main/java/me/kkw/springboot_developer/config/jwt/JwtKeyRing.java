@@ -0,0 +1,99 @@
+package me.kkw.springboot_developer.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.impl.TextCodec;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+* JWT 서명 키 묶음 (kid -> key)
+*
+* 서명 키가 하나뿐이면 키를 바꾸는 순간 살아 있는 모든 토큰이 한꺼번에 무효가 되고
+* 모든 클라이언트가 동시에 /api/token으로 몰려온다.
+* 그래서 키마다 kid(Key ID)를 붙이고, 토큰 헤더의 kid로 검증할 키를 고른다.
+*
+* 키의 상태
+* - ACTIVE: 새 토큰에 서명하는 키, 딱 하나만 있어야 한다
+* - VERIFY_ONLY: 서명은 하지 않고 이미 발급된 토큰의 검증에만 쓰는 키
+*
+* 키 교체 순서
+* 1. 새 키를 VERIFY_ONLY로 모든 인스턴스에 배포한다
+* 2. 새 키를 ACTIVE로, 기존 키를 VERIFY_ONLY로 바꾼다
+* 3. 기존 키로 서명된 토큰이 전부 만료된 뒤에 기존 키를 목록에서 지운다
+*
+* kid가 없는 예전 토큰은 jwt.secret_key로 검증한다.
+* 모든 키는 시작할 때 한 번만 디코딩해서 맵에 넣어 두기 때문에 검증은 맵 조회 한 번이다.
+*/
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.HS256;
+
+    private final Map<String, Key> verificationKeys;
+    private final Key legacyKey;
+    private final String activeKid;
+    private final Key activeKey;
+
+    public JwtKeyRing(JwtProperties jwtProperties) {
+        Map<String, Key> keys = new HashMap<>();
+        String activeKid = null;
+
+        for (JwtProperties.SigningKey signingKey : jwtProperties.getKeys()) {
+            if (keys.put(signingKey.getKid(), toKey(signingKey.getSecret())) != null) {
+                throw new IllegalStateException("duplicate jwt kid: " + signingKey.getKid());
+            }
+
+            if (signingKey.getStatus() == JwtProperties.KeyStatus.ACTIVE) {
+                if (activeKid != null) {
+                    throw new IllegalStateException("more than one active jwt key: "
+                            + activeKid + ", " + signingKey.getKid());
+                }
+                activeKid = signingKey.getKid();
+            }
+        }
+
+        this.verificationKeys = Map.copyOf(keys);
+        this.legacyKey = jwtProperties.getSecretKey() != null ? toKey(jwtProperties.getSecretKey()) : null;
+        this.activeKid = activeKid;
+        this.activeKey = activeKid != null ? verificationKeys.get(activeKid) : legacyKey;
+
+        if (activeKey == null) {
+            throw new IllegalStateException("no jwt signing key configured");
+        }
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return ALGORITHM;
+    }
+
+    // null이면 kid 헤더 없이 jwt.secret_key로 서명한다
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public Key getActiveKey() {
+        return activeKey;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        Key key = kid == null ? legacyKey : verificationKeys.get(kid);
+
+        if (key == null) {
+            throw new SignatureException("unknown jwt kid: " + kid);
+        }
+        return key;
+    }
+
+    // signWith(alg, String)과 같은 방식(Base64 디코딩)으로 바꿔야 예전 토큰도 그대로 검증된다
+    private static Key toKey(String secret) {
+        return new SecretKeySpec(TextCodec.BASE64.decode(secret), ALGORITHM.getJcaName());
+    }
+}
@@ -6,6 +6,10 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /*
 * 목적
 * JwtProperties의 목적은 JWT 관련 설정 값들을 코드에서 분리하고
@@ -33,4 +37,37 @@ public class JwtProperties {
 
     private String issuer;
     private String secretKey;
+    private List<SigningKey> keys = new ArrayList<>();
+    private Revocation revocation = new Revocation();
+
+    /*
+    * 서명 키 목록, jwt.keys[n].kid / secret / status 로 채워진다
+    * 키 교체 순서와 상태의 의미는 JwtKeyRing 참고
+    */
+    @Setter
+    @Getter
+    public static class SigningKey {
+        private String kid;
+        private String secret;
+        private KeyStatus status = KeyStatus.VERIFY_ONLY;
+    }
+
+    public enum KeyStatus {
+        ACTIVE, VERIFY_ONLY
+    }
+
+    /*
+    * 액세스 토큰 폐기(블룸 필터) 설정, jwt.revocation.* 으로 채워진다
+    * - window: 만료 시각을 이 크기의 구간으로 나눠서 구간마다 필터를 하나씩 둔다
+    * - max-token-lifetime: 필터로 확인하는 토큰의 최대 유효 기간, 이보다 먼 만료 시각은 테이블로 바로 확인한다
+    * - expected-insertions, false-positive-rate: 구간 하나의 필터 크기를 정하는 값
+    */
+    @Setter
+    @Getter
+    public static class Revocation {
+        private Duration window = Duration.ofHours(1);
+        private Duration maxTokenLifetime = Duration.ofHours(2);
+        private int expectedInsertions = 10000;
+        private double falsePositiveRate = 0.001;
+    }
 }
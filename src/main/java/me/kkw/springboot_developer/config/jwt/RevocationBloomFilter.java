@@ -0,0 +1,86 @@
+package me.kkw.springboot_developer.config.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+* 폐기된 jti를 담는 블룸 필터
+*
+* mightContain이 false면 "확실히 폐기되지 않음", true면 "폐기됐을 수도 있음"이다.
+* 그래서 true가 나온 토큰만 revoked_token 테이블을 정확하게 확인하면 된다.
+*
+* 해시는 문자열의 char를 직접 돌면서 계산하기 때문에
+* getBytes() 같은 배열 생성 없이 확인할 수 있다 (확인 경로에서 객체 할당 없음).
+* 비트 배열은 AtomicLongArray라서 여러 요청 스레드가 락 없이 동시에 읽고 쓸 수 있다.
+*/
+public class RevocationBloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+
+    public RevocationBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) >>> 6);
+
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(CharSequence value) {
+        long hash1 = fnv1a(value);
+        long hash2 = mix(hash1) | 1L;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(hash1 + i * hash2, bitSize);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(CharSequence value) {
+        long hash1 = fnv1a(value);
+        long hash2 = mix(hash1) | 1L;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(hash1 + i * hash2, bitSize);
+
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long fnv1a(CharSequence value) {
+        long hash = FNV_OFFSET;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // MurmurHash3의 fmix64, 첫 번째 해시에서 두 번째 해시를 뽑을 때 사용
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -2,10 +2,11 @@ package me.kkw.springboot_developer.config.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import lombok.RequiredArgsConstructor;
 import me.kkw.springboot_developer.domain.User;
+import me.kkw.springboot_developer.service.TokenRevocationService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,6 +16,7 @@ import java.time.Duration;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Set;
+import java.util.UUID;
 
 /*
 * 목적
@@ -24,10 +26,17 @@ import java.util.Set;
 */
 
 @Component
-@RequiredArgsConstructor
 public class TokenProvider {
 
     private final JwtProperties jwtProperties;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtKeyRing keyRing;
+
+    public TokenProvider(JwtProperties jwtProperties, TokenRevocationService tokenRevocationService) {
+        this.jwtProperties = jwtProperties;
+        this.tokenRevocationService = tokenRevocationService;
+        this.keyRing = new JwtKeyRing(jwtProperties);
+    }
 
     public String generateToken(User user, Duration expiredAt) {
         Date now = new Date();
@@ -71,6 +80,10 @@ public class TokenProvider {
     * `user.getEmail()`으로 토큰의 주체를 사용자의 이메일로 설정한다
     * 이메일처럼 고유한 값을 사용하면 나중에 토큰만으로도 누구인지 식별하기 쉽다.
     *
+    * `.setId(UUID.randomUUID().toString())`
+    * 페이로드의 jti(JWT ID) 클레임을 설정한다.
+    * 토큰마다 고유한 값이라서 만료 전에 이 토큰 하나만 콕 집어서 폐기할 때 사용한다.
+    *
     * `.claim("id", user.getId())`
     * 페이로드에 비공개 클레임을 추가한다.
     * 표준 스펙에는 없지만, 우리가 직접 정의해서 추가하고 싶은 정보를 담을 때 사용한다.
@@ -84,6 +97,8 @@ public class TokenProvider {
     * `SignatureAlgorithm.HS256`은 HS256이라는 대칭키 암호화 알고리즘을 사용하겠다고 지정한다.
     * `jwtProperties.getSecretKey()`는 application.yml에서 읽어온 비밀 키를 서명에 사용한다.
     * 이 키는 서명을 모르면 위조할 수 없다.
+    * 지금은 키 묶음(JwtKeyRing)의 ACTIVE 키로 서명하고, 그 키의 kid를 헤더에 적는다.
+    * 키가 따로 설정되지 않았으면 예전처럼 jwt.secret_key로 kid 없이 서명한다.
     *
     * `.compact()`
     * 지금까지 설정한 헤더, 페이로드, 서명을 합쳐서 실제 JWT 문자열로 만든다
@@ -92,15 +107,21 @@ public class TokenProvider {
      */
     private String makeToken (Date expiry, User user) {
         Date now = new Date();
+        JwtBuilder builder = Jwts.builder()
+                .setHeaderParam(Header.TYPE, Header.JWT_TYPE);
 
-        return Jwts.builder()
-                .setHeaderParam(Header.TYPE, Header.JWT_TYPE)
+        if (keyRing.getActiveKid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKid());
+        }
+
+        return builder
                 .setIssuer(jwtProperties.getIssuer())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .setSubject(user.getEmail())
+                .setId(UUID.randomUUID().toString())
                 .claim("id", user.getId())
-                .signWith(SignatureAlgorithm.HS256, jwtProperties.getSecretKey())
+                .signWith(keyRing.getAlgorithm(), keyRing.getActiveKey())
                 .compact();
     }
 
@@ -117,6 +138,7 @@ public class TokenProvider {
     * 파서는 전달받은 token의 헤더와 페이로드를 가져온다.
     * 그리고 setSigningkey로 설정된 서버의 비밀 키를 사용해서
     * 토큰을 만들 때와 동일한 알고리즘(HS256)으로 서명을 다시 계산한다.
+    * 지금은 키를 직접 넘기지 않고 setSigningKeyResolver(keyRing)로 헤더의 kid에 맞는 키를 고른다.
     * 새로 계산한 서명과 원래 token에 붙어있던 서명을 비교한다.
     * 두 서명이 일치하면 토큰이 위변조 X
     * 두 서명이 다르면 토큰이 위변조 O -> SignatureException 발생
@@ -127,14 +149,21 @@ public class TokenProvider {
     * 만료 시간 검증 -> 만료 시간 유효한지 확인하고 만료면 ExpiredJwtException
     * 형식 검증 -> 주어진 token 문자열이 xxxxx.yyyyy.zzzzz 형식을 만족하는 지 확인
     * 틀리면 MalformedJwtException 발생
+    *
+    * 마지막으로 jti가 있는 토큰은 폐기 목록을 확인한다.
+    * 폐기되지 않은 토큰은 메모리의 블룸 필터만 보고 통과하기 때문에 DB를 거치지 않는다.
     */
     public boolean validToken(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(jwtProperties.getSecretKey())
-                    .parseClaimsJws(token);
+            Claims claims = Jwts.parser()
+                    .setSigningKeyResolver(keyRing)
+                    .parseClaimsJws(token)
+                    .getBody();
 
-            return true;
+            String tokenId = claims.getId();
+
+            return tokenId == null
+                    || !tokenRevocationService.isRevoked(tokenId, claims.getExpiration().getTime());
         } catch (Exception e) {
             return false;
         }
@@ -187,8 +216,16 @@ public class TokenProvider {
         return claims.get("id", Long.class);
     }
 
+    public String getTokenId(String token) {
+        return getClaims(token).getId();
+    }
+
+    public Date getExpiration(String token) {
+        return getClaims(token).getExpiration();
+    }
+
     private Claims getClaims(String token) {
-        Claims claim = Jwts.parser().setSigningKey(jwtProperties.getSecretKey())
+        Claims claim = Jwts.parser().setSigningKeyResolver(keyRing)
                 .parseClaimsJws(token)
                 .getBody();
 
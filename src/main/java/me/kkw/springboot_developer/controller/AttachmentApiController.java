@@ -0,0 +1,195 @@
+package me.kkw.springboot_developer.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.kkw.springboot_developer.domain.Attachment;
+import me.kkw.springboot_developer.dto.AttachmentResponse;
+import me.kkw.springboot_developer.service.AttachmentService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+@RestController
+public class AttachmentApiController {
+
+    /*
+    * 톰캣 NIO 커넥터의 sendfile 요청 속성 (org.apache.tomcat.util.net.Constants)
+    * 이 속성을 채우고 본문을 쓰지 않으면 톰캣이 서블릿이 끝난 뒤 sendfile()로 파일을 소켓에 바로 보낸다
+    */
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // 첨부 파일 내용은 바뀌지 않아서 1년 동안 다시 확인하지 않아도 된다
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    /*
+    * 브라우저에서 바로 보여줘도 되는(inline) 형식, 스크립트를 담을 수 없는 래스터 이미지만
+    * 나머지(HTML, SVG 등)는 우리 도메인에서 열리면 로그인한 사용자의 권한으로 스크립트가 실행될 수 있어서
+    * 항상 다운로드(attachment)로 내보낸다
+    */
+    private static final Set<String> INLINE_CONTENT_TYPES = Set.of(
+            "image/png", "image/jpeg", "image/gif", "image/webp", "image/avif");
+
+    private final AttachmentService attachmentService;
+
+    /*
+    * 첨부 파일 업로드
+    * multipart가 아니라 요청 본문 전체가 파일 내용이다. 파일 이름은 ?filename=, 종류는 Content-Type 헤더로 보낸다
+    * 본문을 InputStream으로 받아서 AttachmentStore가 조금씩 디스크에 쓰기 때문에 힙에 파일 전체가 올라가지 않는다
+    * ex) curl -X POST --data-binary @cat.png -H "Content-Type: image/png" ".../api/articles/1/attachments?filename=cat.png"
+    */
+    @PostMapping("/api/articles/{id}/attachments")
+    public ResponseEntity<AttachmentResponse> uploadAttachment(@PathVariable long id,
+                                                               @RequestParam String filename,
+                                                               @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                               InputStream body) {
+        Attachment attachment = attachmentService.upload(id, filename, contentType, body);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(new AttachmentResponse(attachment));
+    }
+
+    @GetMapping("/api/articles/{id}/attachments")
+    public ResponseEntity<List<AttachmentResponse>> findAttachments(@PathVariable long id) {
+        List<AttachmentResponse> attachments = attachmentService.findByArticle(id)
+                .stream()
+                .map(AttachmentResponse::new)
+                .toList();
+
+        return ResponseEntity.ok().body(attachments);
+    }
+
+    /*
+    * 첨부 파일 다운로드
+    * - ETag는 내용의 SHA-256 (strong), If-None-Match가 맞으면 본문 없이 304
+    * - Range: bytes=0-99 처럼 범위 하나를 요청하면 206으로 그 부분만 보낸다
+    *   범위가 여러 개면 전체를 200으로 보내고, 파일 밖의 범위면 416
+    * - If-Range가 ETag와 다르면 Range를 무시하고 전체를 보낸다
+    * - 래스터 이미지만 inline, 나머지는 attachment로 내보내고
+    *   Content-Security-Policy: sandbox, nosniff로 혹시 열리더라도 스크립트가 돌지 않게 한다
+    * 본문은 톰캣 sendfile이 되면 sendfile로, 아니면 FileChannel.transferTo로 힙을 거치지 않고 보낸다
+    */
+    @GetMapping("/api/attachments/{id}")
+    public void downloadAttachment(@PathVariable long id,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        Attachment attachment = attachmentService.findById(id);
+        Path path = attachmentService.pathOf(attachment);
+        String eTag = "\"" + attachment.getSha256() + "\"";
+        long size = attachment.getSize();
+
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("Content-Security-Policy", "sandbox");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        if (matchesNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+
+        if (range != null && (ifRange == null || ifRange.trim().equals(eTag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                }
+                // getRangeStart()는 시작 위치가 파일 길이를 넘는지 보지 않는다 (bytes=<size>- 이면 start > end)
+                if (start >= size || start > end) {
+                    throw new IllegalArgumentException("range not satisfiable: " + range);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+
+            if (ranges.size() == 1) {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        ContentDisposition.Builder disposition = INLINE_CONTENT_TYPES.contains(attachment.getContentType())
+                ? ContentDisposition.inline()
+                : ContentDisposition.attachment();
+        response.setContentType(attachment.getContentType());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        if (length == 0 || HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    throw new EOFException("attachment file is shorter than " + size + " bytes: " + path);
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // If-None-Match는 약한 비교라서 W/"..."도 같은 값으로 본다
+    private static boolean matchesNoneMatch(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,17 +1,37 @@
 package me.kkw.springboot_developer.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import me.kkw.springboot_developer.domain.Article;
 import me.kkw.springboot_developer.dto.AddArticleRequest;
+import me.kkw.springboot_developer.dto.ArticleChangeToken;
+import me.kkw.springboot_developer.dto.ArticleChangesResponse;
+import me.kkw.springboot_developer.dto.ArticleCursor;
+import me.kkw.springboot_developer.dto.ArticleField;
+import me.kkw.springboot_developer.dto.ArticleFeedResponse;
+import me.kkw.springboot_developer.dto.ArticleImportResponse;
+import me.kkw.springboot_developer.dto.ArticleMultiGetResponse;
 import me.kkw.springboot_developer.dto.ArticleResponse;
+import me.kkw.springboot_developer.dto.ArticleRevisionResponse;
+import me.kkw.springboot_developer.dto.PatchArticleRequest;
+import me.kkw.springboot_developer.dto.TrendingArticleResponse;
 import me.kkw.springboot_developer.dto.UpdateArticleRequest;
+import me.kkw.springboot_developer.service.ArticleImportService;
+import me.kkw.springboot_developer.service.ArticleSyncService;
 import me.kkw.springboot_developer.service.BlogService;
+import me.kkw.springboot_developer.service.TrendingService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 /*
@@ -26,7 +46,13 @@ import java.util.List;
 @RestController
 public class BlogApiController {
 
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    public static final int MAX_IDS = 100;
+
     private final BlogService blogService;
+    private final ArticleImportService articleImportService;
+    private final TrendingService trendingService;
+    private final ArticleSyncService articleSyncService;
 
     @PostMapping("/api/articles")
     // ResponseEntity: 스프링이 제공하는 HTTP Response 응답 전체를 표현하는 클래스
@@ -37,12 +63,24 @@ public class BlogApiController {
 
         // ResponseEntity.status(HttpStatus.CREATED): 상태 코드를 201(CREATED)로 설정
         // .body(savedArticle): 요청에 대한 답변의 바디에 새로 생성한 객체를 넣어서 보내줌
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedArticle);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(savedArticle)).body(savedArticle);
+    }
+
+    /*
+    * 다른 시스템에서 옮겨 오는 글을 NDJSON 파일 하나로 한꺼번에 가져온다
+    * 한 줄에 {"title": "...", "content": "..."} 하나, 작성자는 요청한 사용자
+    * 요청 본문을 스트림으로 읽기 때문에 파일이 커도 메모리에 다 올리지 않는다
+    * 잘못된 줄이 있어도 멈추지 않고, 결과에 줄 번호와 이유를 담아서 돌려준다
+    */
+    @PostMapping(value = "/api/articles/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ArticleImportResponse> importArticles(InputStream body, Principal principal) {
+        return ResponseEntity.ok().body(articleImportService.importArticles(body, principal.getName()));
     }
 
+    // ?tag=로 태그가 붙은 글만 거를 수 있다
     @GetMapping("/api/articles")
-    public ResponseEntity<List<ArticleResponse>> findAllArticles() {
-        List<ArticleResponse> articles = blogService.findAll()
+    public ResponseEntity<List<ArticleResponse>> findAllArticles(@RequestParam(required = false) String tag) {
+        List<ArticleResponse> articles = blogService.findAll(tag)
                 .stream()
                 .map(ArticleResponse::new)
                 .toList();
@@ -53,8 +91,108 @@ public class BlogApiController {
     @GetMapping("api/articles/{id}")
     public ResponseEntity<ArticleResponse> findArticle(@PathVariable long id) {
         Article article = blogService.findById(id);
+        trendingService.recordView(id);
+
+        return ResponseEntity.ok().eTag(eTag(article)).body(new ArticleResponse(article));
+    }
+
+    /*
+    * 필드 선택 조회, ?fields=id,title,updatedAt 처럼 필요한 필드만 받는다
+    * 고른 필드의 컬럼만 SELECT 해서 고르지 않은 본문은 DB에서 읽지도 않는다 (ArticleProjectionRepository 참고)
+    * 고를 수 있는 필드는 ArticleField, 모르는 필드가 있으면 400
+    */
+    @GetMapping(value = "/api/articles", params = {"fields", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> findAllArticleFields(@RequestParam String fields,
+                                                                          @RequestParam(required = false) String tag) {
+        Set<ArticleField> selected;
+        try {
+            selected = ArticleField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok().body(blogService.findAll(selected, tag));
+    }
+
+    /*
+    * 여러 글 한 번에 조회, ?ids=1,2,3 (최대 MAX_IDS개)
+    * 화면 하나에 글이 여러 개 필요할 때 글마다 요청하지 않아도 된다
+    * 요청한 순서대로 돌려주고, 없는 글은 404 대신 missing에 담는다 (fields와는 같이 쓸 수 없고 전체 필드가 나간다)
+    */
+    @GetMapping(value = "/api/articles", params = "ids")
+    public ResponseEntity<ArticleMultiGetResponse> findArticlesByIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_IDS || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok().body(blogService.findAllById(ids));
+    }
+
+    @GetMapping(value = "/api/articles/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findArticleFields(@PathVariable long id, @RequestParam String fields) {
+        Set<ArticleField> selected;
+        try {
+            selected = ArticleField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Map<String, Object> article = blogService.findById(id, selected);
+        trendingService.recordView(id);
+
+        return ResponseEntity.ok().body(article);
+    }
 
-        return ResponseEntity.ok().body(new ArticleResponse(article));
+    /*
+    * 변경 동기화, since 이후에 만들어지거나 고쳐지거나 삭제된 글만 내려준다 (ArticleSyncService 참고)
+    * 처음에는 since 없이 요청하고, 이후에는 응답의 nextToken을 since로 보낸다. hasMore면 바로 이어서 요청한다
+    * since가 너무 오래돼서 삭제 기록이 이미 정리됐으면 410, 클라이언트는 처음부터 다시 받아야 한다
+    */
+    @GetMapping("/api/articles/changes")
+    public ResponseEntity<ArticleChangesResponse> findArticleChanges(@RequestParam(required = false) String since,
+                                                                     @RequestParam(defaultValue = "100") int size) {
+        ArticleChangeToken token;
+        try {
+            token = since == null ? null : ArticleChangeToken.decode(since);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (articleSyncService.requiresFullResync(token)) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+
+        return ResponseEntity.ok().body(articleSyncService.findChanges(token, size));
+    }
+
+    // 지금 뜨는 글, 주기적으로 미리 계산해 둔 목록을 그대로 돌려준다 (TrendingService 참고)
+    @GetMapping("/api/articles/trending")
+    public ResponseEntity<List<TrendingArticleResponse>> findTrendingArticles() {
+        return ResponseEntity.ok().body(trendingService.getTrending());
+    }
+
+    // n번째 리비전의 글 (1번이 처음 기록된 상태), 수정할 때마다 하나씩 늘어난다
+    @GetMapping("/api/articles/{id}/revisions/{revision}")
+    public ResponseEntity<ArticleRevisionResponse> findArticleRevision(@PathVariable long id,
+                                                                       @PathVariable int revision) {
+        return ResponseEntity.ok().body(blogService.findRevision(id, revision));
+    }
+
+    /*
+    * 작성자별 글 목록, 최신순
+    * 다음 페이지는 응답의 nextCursor를 ?cursor=로 넘겨서 요청한다
+    * ?tag=를 주면 그 태그가 붙은 글만, 다음 페이지를 요청할 때도 같은 tag를 넘긴다
+    */
+    @GetMapping("/api/users/{author}/articles")
+    public ResponseEntity<ArticleFeedResponse> findAuthorArticles(@PathVariable String author,
+                                                                  @RequestParam(required = false) String tag,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), BlogService.MAX_FEED_SIZE);
+        List<Article> articles = blogService.findByAuthor(author, tag,
+                cursor == null ? null : ArticleCursor.decode(cursor), pageSize);
+
+        return ResponseEntity.ok().body(new ArticleFeedResponse(articles, pageSize));
     }
 
     @DeleteMapping("/api/articles/{id}")
@@ -64,10 +202,82 @@ public class BlogApiController {
         return ResponseEntity.ok().build();
     }
 
+    /*
+    * 글 수정은 If-Match 헤더가 필수다
+    * 클라이언트는 GET으로 받은 ETag(글의 버전)를 If-Match에 그대로 넣어서 보낸다.
+    * - If-Match가 없으면 428 (Precondition Required)
+    * - 그 사이에 다른 사람이 먼저 고쳐서 버전이 다르면 412 (Precondition Failed)
+    * 락을 잡지 않고 버전만 비교하기 때문에 동시에 여러 글을 고쳐도 서로 기다리지 않는다.
+    */
     @PutMapping("/api/articles/{id}")
-    public ResponseEntity<Article> putArticle(@PathVariable long id, @RequestBody UpdateArticleRequest request) {
-        Article updatedArticle = blogService.update(id, request);
+    public ResponseEntity<Article> putArticle(@PathVariable long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody UpdateArticleRequest request) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+
+        Article updatedArticle = blogService.update(id, request, parseVersion(ifMatch));
+
+        return ResponseEntity.ok().eTag(eTag(updatedArticle)).body(updatedArticle);
+    }
+
+    /*
+    * 부분 수정 (JSON Merge Patch)
+    * {"title": "새 제목"}처럼 바꿀 필드만 보내면 된다. 제목만 고치는 모바일 클라이언트가
+    * 본문 전체를 다시 올리지 않아도 되고, DB에서도 content 컬럼은 다시 쓰지 않는다.
+    * If-Match 규칙은 PUT과 같다.
+    */
+    @PatchMapping(value = "/api/articles/{id}",
+            consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Article> patchArticle(@PathVariable long id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @RequestBody JsonNode patch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+
+        PatchArticleRequest request;
+        try {
+            request = PatchArticleRequest.from(patch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Article patchedArticle = blogService.patch(id, request, parseVersion(ifMatch));
+
+        return ResponseEntity.ok().eTag(eTag(patchedArticle)).body(patchedArticle);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleVersionConflict() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    private static String eTag(Article article) {
+        return "\"" + article.getVersion() + "\"";
+    }
+
+    /*
+    * "3", 3 모두 버전 3으로 읽는다. *는 아무 버전이나 허용(null)
+    * If-Match는 강한 비교만 하니까(RFC 9110) W/"3" 같은 약한 ETag는 숫자가 아닌 값처럼 어떤 버전과도 맞지 않는 값(-1)
+    */
+    private static Long parseVersion(String ifMatch) {
+        String value = ifMatch.trim();
+
+        if (value.equals("*")) {
+            return null;
+        }
+
+        if (value.startsWith("W/")) {
+            return -1L;
+        }
+        value = value.replace("\"", "");
 
-        return ResponseEntity.ok().body(updatedArticle);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
     }
 }
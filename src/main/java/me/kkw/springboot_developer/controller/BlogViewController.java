@@ -3,9 +3,11 @@ package me.kkw.springboot_developer.controller;
 
 import lombok.RequiredArgsConstructor;
 import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.dto.ArticleCursor;
 import me.kkw.springboot_developer.dto.ArticleListViewResponse;
 import me.kkw.springboot_developer.dto.ArticleViewResponse;
 import me.kkw.springboot_developer.service.BlogService;
+import me.kkw.springboot_developer.service.TrendingService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,6 +21,7 @@ import java.util.List;
 public class BlogViewController {
 
     private final BlogService blogService;
+    private final TrendingService trendingService;
 
     @GetMapping("/articles") // 모든 글 조회
     public String getArticles(Model model) {
@@ -53,9 +56,26 @@ public class BlogViewController {
         return "articleList";
     }
 
+    @GetMapping("/users/{author}/articles") // 작성자별 글 목록
+    public String getAuthorArticles(@PathVariable String author,
+                                    @RequestParam(required = false) String cursor,
+                                    Model model) {
+        int size = 20;
+        List<Article> articles = blogService.findByAuthor(author,
+                cursor == null ? null : ArticleCursor.decode(cursor), size);
+        List<Article> page = articles.size() > size ? articles.subList(0, size) : articles;
+
+        model.addAttribute("author", author);
+        model.addAttribute("articles", page.stream().map(ArticleListViewResponse::new).toList());
+        model.addAttribute("nextCursor", articles.size() > size ? ArticleCursor.of(page.getLast()).encode() : null);
+
+        return "authorArticleList";
+    }
+
     @GetMapping("/articles/{id}") // 글 조회
     public String getArticle(@PathVariable Long id, Model model) {
         Article article = blogService.findById(id);
+        trendingService.recordView(id);
 
         model.addAttribute("article", new ArticleViewResponse(article));
 
@@ -0,0 +1,51 @@
+package me.kkw.springboot_developer.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.kkw.springboot_developer.domain.Comment;
+import me.kkw.springboot_developer.dto.AddCommentRequest;
+import me.kkw.springboot_developer.dto.CommentPageResponse;
+import me.kkw.springboot_developer.dto.CommentResponse;
+import me.kkw.springboot_developer.service.CommentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+@RequiredArgsConstructor
+@RestController
+public class CommentApiController {
+
+    private final CommentService commentService;
+
+    /*
+    * 글의 댓글 목록, 작성 순서
+    * 다음 페이지는 응답의 nextCursor를 ?cursor=로 넘겨서 요청한다
+    */
+    @GetMapping("/api/articles/{id}/comments")
+    public ResponseEntity<CommentPageResponse> findComments(@PathVariable long id,
+                                                            @RequestParam(required = false) Long cursor,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), CommentService.MAX_PAGE_SIZE);
+        List<Comment> comments = commentService.findComments(id, cursor, pageSize);
+
+        return ResponseEntity.ok().body(new CommentPageResponse(comments, pageSize));
+    }
+
+    @PostMapping("/api/articles/{id}/comments")
+    public ResponseEntity<CommentResponse> addComment(@PathVariable long id,
+                                                      @RequestBody AddCommentRequest request,
+                                                      Principal principal) {
+        Comment comment = commentService.save(id, request, principal.getName());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(new CommentResponse(comment));
+    }
+
+    @DeleteMapping("/api/articles/{id}/comments/{commentId}")
+    public ResponseEntity<Void> deleteComment(@PathVariable long id, @PathVariable long commentId) {
+        commentService.delete(id, commentId);
+
+        return ResponseEntity.ok().build();
+    }
+}
@@ -3,6 +3,7 @@ package me.kkw.springboot_developer.controller;
 import lombok.RequiredArgsConstructor;
 import me.kkw.springboot_developer.dto.CreateAccessTokenRequest;
 import me.kkw.springboot_developer.dto.CreateAccessTokenResponse;
+import me.kkw.springboot_developer.dto.RevokeAccessTokenRequest;
 import me.kkw.springboot_developer.service.TokenService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,4 +25,13 @@ public class TokenApiController {
         return ResponseEntity.status((HttpStatus.CREATED))
                 .body(new CreateAccessTokenResponse(newAccessToken));
     }
+
+    @PostMapping("/api/token/revoke")
+    public ResponseEntity<Void> revokeAccessToken(@RequestBody RevokeAccessTokenRequest request) {
+        if(!tokenService.revokeAccessToken(request.getAccessToken())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.noContent().build();
+    }
 }
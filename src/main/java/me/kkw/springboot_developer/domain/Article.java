@@ -1,15 +1,27 @@
 package me.kkw.springboot_developer.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /*
 * 데이터베이스 테이블과 직접 매핑되는 핵심 객체들
@@ -32,9 +44,40 @@ import java.time.LocalDateTime;
 *
 * 이 기능이 제대로 동작하려면 메인 어플리케이션 클래스에
 * @EnableJpaAuditing 애노테이션을 추가해야함
+*
+* @Cacheable, @Cache는 하이버네이트 2차 캐시 설정
+* 트랜잭션이 끝나도 조회한 Article을 ehcache.xml의 캐시 영역에 남겨둬서
+* 같은 글을 다시 조회할 때 DB까지 가지 않는다.
+* READ_WRITE 전략이라서 update()로 바뀐 내용은 변경 감지로 UPDATE가 커밋될 때 캐시에도 반영된다.
+* (커밋 전까지는 캐시 항목이 잠겨서 다른 트랜잭션은 DB에서 읽는다)
+*
+* @Table의 indexes는 스키마를 만들 때 함께 생성할 인덱스
+*
+* @DynamicUpdate
+* 기본 UPDATE는 바뀌지 않은 컬럼까지 전부 다시 쓰는데,
+* 이 애노테이션이 있으면 실제로 바뀐 컬럼만 SET 절에 넣는다.
+* 제목만 고쳤을 때 바뀌지 않은 컬럼까지 다시 쓰지 않게 하려고 붙였다.
+*
+* @SQLRestriction
+* 삭제는 행을 바로 지우지 않고 deleted_at만 채우는 tombstone(묘비) 방식이다.
+* 이 애노테이션이 엔티티를 읽는 모든 SQL에 "deleted_at is null" 조건을 붙여서 삭제된 글을 걸러낸다.
+* (2차 캐시에 남아 있는 삭제된 글은 BlogService에서 isDeleted()로 한 번 더 거른다)
+* 실제 행은 ArticleCompactionService가 한가한 시간에 모아서 지운다.
 */
 @EntityListeners(AuditingEntityListener.class)
 @Entity // 엔티티로 지정
+@Table(name = "article", indexes = {
+        // 작성자별 글 목록(최신순) 조회용 복합 인덱스, BlogRepository.findByAuthor... 의 조건/정렬 순서와 같다
+        @Index(name = "idx_article_author_created_at_id", columnList = "author, created_at, id"),
+        // 변경 동기화(GET /api/articles/changes)용 인덱스, 마지막으로 받은 (updated_at, id) 다음부터 읽는다
+        @Index(name = "idx_article_updated_at_id", columnList = "updated_at, id"),
+        // tombstone 정리(BlogRepository.findTombstonedIds)용 인덱스, deleted_at이 기준 시각보다 오래된 행만 범위로 읽는다
+        @Index(name = "idx_article_deleted_at_id", columnList = "deleted_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
+@SQLRestriction("deleted_at is null")
 @Getter // 클래스의 모든 필드에 대한 접근자 메소드를 만듦
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // Args 없는 생성자 = 기본 생성자 / 타입은 protected로
 public class Article {
@@ -47,8 +90,15 @@ public class Article {
     @Column(name = "title", nullable = false)
     private String title;
 
-    @Column(name = "content", nullable = false)
-    private String content;
+    /*
+    * 본문은 article_body 테이블로 분리해서 지연 로딩한다 (ArticleBody 참고)
+    * 글을 저장하거나 지울 때 본문도 같이 저장/삭제되도록 cascade와 orphanRemoval을 켰다
+    * 엔티티를 JSON으로 내보낼 때 프록시를 건드리지 않도록 @JsonIgnore, 본문은 getContent()로 나간다
+    */
+    @JsonIgnore
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "body_id", nullable = false, unique = true)
+    private ArticleBody body;
 
     @CreatedDate
     @Column(name = "created_at")
@@ -61,11 +111,54 @@ public class Article {
     @Column(name = "author", nullable = false)
     private String author;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    /*
+    * 태그 (article_tag 연결 테이블)
+    * 목록에서 글마다 태그를 따로 조회하는 N+1을 막으려고 @BatchSize를 붙였다.
+    * 한 페이지의 글들의 태그를 최대 100개 글씩 IN 쿼리 하나로 같이 읽는다.
+    * 연결 테이블의 기본키는 (article_id, tag_id)라서 태그로 거르는 조회를 위해 (tag_id, article_id) 인덱스를 따로 둔다.
+    * JSON으로는 getTagNames()의 이름 목록만 나간다.
+    */
+    @JsonIgnore
+    @ManyToMany
+    @JoinTable(name = "article_tag",
+            joinColumns = @JoinColumn(name = "article_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_article_tag_tag_id_article_id", columnList = "tag_id, article_id"))
+    @BatchSize(size = 100)
+    private Set<Tag> tags = new LinkedHashSet<>();
+
+    /*
+    * 낙관적 락(optimistic lock)용 버전
+    * 변경 감지로 UPDATE가 나갈 때마다 하이버네이트가 1씩 올리고,
+    * UPDATE ... WHERE id = ? AND version = ? 으로 실행해서
+    * 그 사이에 다른 트랜잭션이 먼저 고쳤으면 수정된 행이 0개가 되어 예외가 발생한다.
+    * API에서는 이 값을 ETag로 내보내고 If-Match로 돌려받는다.
+    * data.sql처럼 version 없이 넣는 행을 위해 컬럼 기본값을 0으로 둔다.
+    */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /*
+    * 댓글 수 (CommentService가 댓글을 쓰고 지우는 트랜잭션 안에서 같이 고친다)
+    * 글 목록에서 글마다 COUNT(*)를 하지 않으려고 따로 들고 있는 비정규화 컬럼이다
+    * 댓글이 달렸다고 글의 버전(ETag)과 updated_at이 바뀌면 안 되니까 엔티티를 고치지 않고
+    * BlogRepository.addCommentCount UPDATE로만 바꾼다
+    */
+    @OptimisticLock(excluded = true)
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false)
+    private int commentCount;
+
     @Builder // 빌더 패턴으로 객체 생성
     public Article(String author, String title, String content) {
         this.author = author;
         this.title = title;
-        this.content = content;
+        this.body = ArticleBody.of(content);
     }
     /*
     * <일반 객체 생성>
@@ -77,9 +170,60 @@ public class Article {
     확실히 빌더 패턴이 직관적임.
     */
 
+    // 본문이 필요한 곳에서만 호출한다, 이때 article_body를 읽는다
+    public String getContent() {
+        return body.getContent();
+    }
+
+    // 저장할 때 렌더링해 둔 HTML, 아직 렌더링 전이면 null
+    public String getHtml() {
+        return body.getHtml();
+    }
+
+    public void renderHtml(String html, int rendererVersion) {
+        body.updateHtml(html, rendererVersion);
+    }
+
+    public void addTags(Collection<Tag> tags) {
+        this.tags.addAll(tags);
+    }
+
+    public List<String> getTagNames() {
+        return tags.stream().map(Tag::getName).sorted().toList();
+    }
+
     public void update(String title, String content) {
         this.title = title;
-        this.content = content;
+        this.body.update(content);
+        markBodyChanged();
+    }
+
+    // tombstone 삭제, 변경 감지로 deleted_at 컬럼만 UPDATE 된다
+    public void delete() {
+        this.deletedAt = LocalDateTime.now();
+    }
+
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+
+    // 부분 수정, null인 값은 그대로 둔다
+    public void patch(String title, String content) {
+        if (title != null) {
+            this.title = title;
+        }
+        if (content != null) {
+            this.body.update(content);
+            markBodyChanged();
+        }
+    }
+
+    /*
+    * 본문은 article_body에 있어서 본문만 바뀌면 article 행은 변경 감지에 걸리지 않는다.
+    * 그러면 version(ETag)도 updated_at도 그대로라 변경 동기화에서 빠지니까 updated_at을 직접 바꿔서 article도 UPDATE 되게 한다.
+    */
+    private void markBodyChanged() {
+        this.updatedAt = LocalDateTime.now();
     }
 }
 
@@ -0,0 +1,193 @@
+package me.kkw.springboot_developer.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+* 글 본문 (article_body 테이블)
+*
+* 본문은 글에서 가장 큰 데이터인데 목록, 권한 확인, 제목 수정 같은 대부분의 경로에서는 필요 없다.
+* 그래서 article 테이블에서 떼어내서 Article이 지연 로딩(LAZY)으로 들고 있게 했다.
+* getContent()를 실제로 부르는 상세 화면 같은 곳에서만 SELECT가 나간다.
+*
+* 저장할 때는 UTF-8 바이트가 COMPRESSION_THRESHOLD 이상이면 deflate(BEST_SPEED)로 압축하고,
+* 압축해도 작아지지 않으면 원본 그대로 둔다. 작은 본문은 압축 오버헤드가 더 크기 때문.
+* rawLength와 storedLength를 같이 저장해서 LOB을 읽지 않고도 절약한 용량을 계산할 수 있다.
+*
+* 본문을 마크다운으로 렌더링한 HTML도 같은 방식(압축 포함)으로 html_data에 같이 저장한다 (MarkdownRenderer 참고)
+* 본문이 바뀌면 HTML은 비워지고, 저장하는 쪽(BlogService)이 바로 다시 렌더링한다.
+* renderer_version은 어떤 버전의 렌더러로 만든 HTML인지 남겨서, 렌더러가 바뀌면 다시 렌더링할 행을 찾는 데 쓴다.
+*
+* @BatchSize는 목록 API처럼 여러 글의 본문이 필요한 경우에
+* 본문 프록시를 한 건씩이 아니라 최대 100건씩 IN 쿼리로 초기화하게 한다.
+*/
+@Table(name = "article_body")
+@Entity
+@BatchSize(size = 100)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArticleBody {
+
+    public static final int COMPRESSION_THRESHOLD = 512;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Lob
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    @Column(name = "compressed", nullable = false)
+    private boolean compressed;
+
+    @Column(name = "raw_length", nullable = false)
+    private int rawLength;
+
+    @Column(name = "stored_length", nullable = false)
+    private int storedLength;
+
+    @Lob
+    @Column(name = "html_data")
+    private byte[] htmlData;
+
+    @ColumnDefault("false")
+    @Column(name = "html_compressed", nullable = false)
+    private boolean htmlCompressed;
+
+    @ColumnDefault("0")
+    @Column(name = "html_raw_length", nullable = false)
+    private int htmlRawLength;
+
+    // null이면 아직 렌더링하지 않은 본문 (data.sql, 대량 가져오기로 넣은 행)
+    @Column(name = "renderer_version")
+    private Integer rendererVersion;
+
+    // 한 번 풀어낸 본문은 엔티티가 살아 있는 동안 다시 풀지 않는다
+    @Transient
+    private String content;
+
+    @Transient
+    private String html;
+
+    private ArticleBody(String content) {
+        update(content);
+    }
+
+    public static ArticleBody of(String content) {
+        return new ArticleBody(content);
+    }
+
+    public void update(String content) {
+        if (content == null) {
+            throw new IllegalArgumentException("content must not be null");
+        }
+
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        byte[] deflated = raw.length >= COMPRESSION_THRESHOLD ? deflate(raw) : null;
+
+        this.compressed = deflated != null && deflated.length < raw.length;
+        this.data = compressed ? deflated : raw;
+        this.rawLength = raw.length;
+        this.storedLength = data.length;
+        this.content = content;
+
+        this.htmlData = null;
+        this.htmlRawLength = 0;
+        this.rendererVersion = null;
+        this.html = null;
+    }
+
+    public void updateHtml(String html, int rendererVersion) {
+        byte[] raw = html.getBytes(StandardCharsets.UTF_8);
+        byte[] deflated = raw.length >= COMPRESSION_THRESHOLD ? deflate(raw) : null;
+
+        this.htmlCompressed = deflated != null && deflated.length < raw.length;
+        this.htmlData = htmlCompressed ? deflated : raw;
+        this.htmlRawLength = raw.length;
+        this.rendererVersion = rendererVersion;
+        this.html = html;
+    }
+
+    /*
+    * 렌더링하다 실패한 본문(본문이 깨졌거나 렌더러가 예외를 던진 경우)
+    * HTML은 그대로 두고 버전만 올려서 같은 렌더러 버전으로는 다시 시도하지 않는다, 렌더러 버전을 올리면 다시 시도된다
+    */
+    public void markRenderFailed(int rendererVersion) {
+        this.rendererVersion = rendererVersion;
+    }
+
+    // 아직 렌더링하지 않았으면 null
+    public String getHtml() {
+        if (html == null && htmlData != null) {
+            html = new String(htmlCompressed ? inflate(htmlData, htmlRawLength) : htmlData, StandardCharsets.UTF_8);
+        }
+        return html;
+    }
+
+    public String getContent() {
+        if (content == null) {
+            content = decode(data, compressed, rawLength);
+        }
+        return content;
+    }
+
+    // 엔티티 없이 컬럼 값만 읽어 온 경우(필드 선택 조회)에 본문을 푼다
+    public static String decode(byte[] data, boolean compressed, int rawLength) {
+        return new String(compressed ? inflate(data, rawLength) : data, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] deflated, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+
+            byte[] raw = new byte[rawLength];
+            int offset = 0;
+            while (offset < rawLength) {
+                int inflated = inflater.inflate(raw, offset, rawLength - offset);
+                // 잘렸거나 깨진 데이터면 더 풀 것이 없어서 0만 돌려주고 영원히 돌게 된다
+                if (inflated == 0) {
+                    throw new IllegalStateException("corrupted article body: inflated " + offset
+                            + " of " + rawLength + " bytes"
+                            + (inflater.needsDictionary() ? " (needs dictionary)" : "")
+                            + (inflater.needsInput() ? " (needs input)" : ""));
+                }
+                offset += inflated;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("corrupted article body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package me.kkw.springboot_developer.domain;
+
+// 아웃박스로 내보내는 글 변경 이벤트 종류
+public enum ArticleEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
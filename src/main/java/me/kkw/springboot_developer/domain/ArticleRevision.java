@@ -0,0 +1,100 @@
+package me.kkw.springboot_developer.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/*
+* 글 수정 이력 (article_revision 테이블), 한 번 쓰면 고치지 않는 append-only 테이블이다
+*
+* 리비전 번호는 글마다 1부터 시작한다.
+* SNAPSHOT_INTERVAL번마다(1, 11, 21, ...) 본문 전체를 스냅샷으로 저장하고
+* 나머지는 바로 앞 리비전에 대한 줄 단위 델타(LineDelta)만 저장한다.
+* 그래서 저장 공간은 글 크기가 아니라 고친 양만큼 늘어나고,
+* 어떤 버전이든 가장 가까운 스냅샷에서 최대 SNAPSHOT_INTERVAL - 1개의 델타만 적용하면 복원된다.
+*
+* 제목은 짧아서 리비전마다 그대로 저장한다.
+*/
+@Table(name = "article_revision",
+        uniqueConstraints = @UniqueConstraint(name = "uk_article_revision_article_id_revision",
+                columnNames = {"article_id", "revision"}))
+@EntityListeners(AuditingEntityListener.class)
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArticleRevision {
+
+    public static final int SNAPSHOT_INTERVAL = 10;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "article_id", nullable = false, updatable = false)
+    private Long articleId;
+
+    @Column(name = "revision", nullable = false, updatable = false)
+    private int revision;
+
+    @Column(name = "title", nullable = false, updatable = false)
+    private String title;
+
+    // true면 data가 본문 전체(UTF-8), false면 앞 리비전에 대한 LineDelta
+    @Column(name = "snapshot", nullable = false, updatable = false)
+    private boolean snapshot;
+
+    @Lob
+    @Column(name = "data", nullable = false, updatable = false)
+    private byte[] data;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    private ArticleRevision(Long articleId, int revision, String title, boolean snapshot, byte[] data) {
+        this.articleId = articleId;
+        this.revision = revision;
+        this.title = title;
+        this.snapshot = snapshot;
+        this.data = data;
+    }
+
+    public static boolean isSnapshotRevision(int revision) {
+        return (revision - 1) % SNAPSHOT_INTERVAL == 0;
+    }
+
+    // revision 이하에서 가장 가까운 스냅샷 리비전 번호
+    public static int snapshotBase(int revision) {
+        return revision - (revision - 1) % SNAPSHOT_INTERVAL;
+    }
+
+    public static ArticleRevision of(Long articleId, int revision, String title,
+                                     String previousContent, String content) {
+        if (isSnapshotRevision(revision)) {
+            return new ArticleRevision(articleId, revision, title, true, LineDelta.encodeSnapshot(content));
+        }
+        return new ArticleRevision(articleId, revision, title, false, LineDelta.diff(previousContent, content));
+    }
+
+    // 본문은 그대로고 제목만 바뀐 리비전, 스냅샷 리비전 번호에는 쓰면 안 된다
+    public static ArticleRevision titleOnly(Long articleId, int revision, String title) {
+        if (isSnapshotRevision(revision)) {
+            throw new IllegalArgumentException("snapshot revision needs content: " + revision);
+        }
+        return new ArticleRevision(articleId, revision, title, false, LineDelta.unchanged());
+    }
+
+    // 앞 리비전의 본문에 이 리비전을 적용한 결과, 스냅샷이면 앞 리비전은 보지 않는다
+    public String applyTo(String previousContent) {
+        if (snapshot) {
+            return LineDelta.decodeSnapshot(data);
+        }
+        return LineDelta.apply(previousContent, data);
+    }
+}
@@ -0,0 +1,61 @@
+package me.kkw.springboot_developer.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/*
+* 글의 첨부 파일 정보 (attachment 테이블)
+* 파일 내용은 DB가 아니라 AttachmentStore에 SHA-256 해시를 이름으로 저장되고, 여기에는 해시만 남는다
+* 같은 내용의 파일은 여러 번 올려도 한 번만 저장된다
+* 한 번 올린 첨부 파일의 내용은 바뀌지 않아서 해시를 그대로 ETag로 쓴다
+*/
+@Table(name = "attachment", indexes = {
+        @Index(name = "idx_attachment_article_id", columnList = "article_id"),
+        @Index(name = "idx_attachment_sha256", columnList = "sha256")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Attachment {
+
+    public static final int MAX_FILE_NAME_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "article_id", nullable = false, updatable = false)
+    private Long articleId;
+
+    @Column(name = "file_name", nullable = false, updatable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, updatable = false)
+    private String contentType;
+
+    @Column(name = "size", nullable = false, updatable = false)
+    private long size;
+
+    @Column(name = "sha256", nullable = false, updatable = false, length = 64)
+    private String sha256;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public Attachment(Long articleId, String fileName, String contentType, long size, String sha256) {
+        this.articleId = articleId;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+}
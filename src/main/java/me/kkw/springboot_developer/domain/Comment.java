@@ -0,0 +1,69 @@
+package me.kkw.springboot_developer.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/*
+* 글의 댓글 (comment 테이블)
+*
+* 답글은 한 단계까지만 둔다. 답글에 다시 답글을 달면 같은 최상위 댓글 아래로 붙는다.
+* 그래서 parentId는 항상 null(최상위 댓글)이거나 최상위 댓글의 id다.
+*
+* 글의 댓글 목록은 id 순서(작성 순서)로 keyset 페이지네이션을 하기 때문에
+* (article_id, id) 인덱스 하나로 몇 번째 페이지든 바로 찾아간다.
+* 글에 달린 댓글 수는 Article.commentCount에 따로 들고 있다 (CommentService 참고)
+*/
+@Table(name = "comment", indexes = @Index(name = "idx_comment_article_id_id", columnList = "article_id, id"))
+@EntityListeners(AuditingEntityListener.class)
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Comment {
+
+    public static final int MAX_CONTENT_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "article_id", nullable = false, updatable = false)
+    private Long articleId;
+
+    @Column(name = "parent_id", updatable = false)
+    private Long parentId;
+
+    @Column(name = "author", nullable = false, updatable = false)
+    private String author;
+
+    @Column(name = "content", nullable = false, length = MAX_CONTENT_LENGTH)
+    private String content;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public Comment(Long articleId, Comment parent, String author, String content) {
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("comment must not be blank");
+        }
+        if (content.length() > MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("comment is longer than " + MAX_CONTENT_LENGTH);
+        }
+
+        this.articleId = articleId;
+        this.parentId = parent == null ? null : parent.getRootId();
+        this.author = author;
+        this.content = content;
+    }
+
+    public Long getRootId() {
+        return parentId == null ? id : parentId;
+    }
+}
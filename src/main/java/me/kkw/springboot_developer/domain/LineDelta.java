@@ -0,0 +1,158 @@
+package me.kkw.springboot_developer.domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+* 줄 단위 델타 인코딩 (ArticleRevision에서 사용)
+*
+* 본문을 줄바꿈을 포함한 줄들로 나누고, 새 본문을 앞에서부터 읽으면서
+* - 이전 본문에 같은 줄들이 연속으로 있으면 COPY(이전 본문의 시작 줄, 줄 수)
+* - 없으면 INSERT(줄 내용)
+* 으로 기록한다. 바뀌지 않은 부분은 COPY 하나(9바이트)로 줄어들기 때문에
+* 델타 크기는 본문 크기가 아니라 고친 줄의 크기에 비례한다.
+*
+* 같은 줄이 이전 본문 여러 곳에 있으면 직전 COPY 바로 뒤를 먼저 보고,
+* 아니면 앞에서부터 MAX_CANDIDATES개 후보 중 가장 길게 이어지는 곳을 고른다.
+* 최적의 diff는 아니지만 O(줄 수 * MAX_CANDIDATES)로 끝나고 결과는 항상 정확하다.
+*
+* 제목만 고친 리비전처럼 본문이 그대로면 이전 본문을 읽지 않고 UNCHANGED 한 바이트만 남긴다. (unchanged())
+*/
+public final class LineDelta {
+
+    private static final byte COPY = 0;
+    private static final byte INSERT = 1;
+    private static final byte UNCHANGED = 2;
+    private static final int MAX_CANDIDATES = 16;
+
+    private LineDelta() {
+    }
+
+    public static byte[] encodeSnapshot(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static String decodeSnapshot(byte[] data) {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    public static byte[] unchanged() {
+        return new byte[]{UNCHANGED};
+    }
+
+    public static byte[] diff(String previous, String current) {
+        List<String> oldLines = lines(previous);
+        List<String> newLines = lines(current);
+
+        Map<String, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < oldLines.size(); i++) {
+            positions.computeIfAbsent(oldLines.get(i), line -> new ArrayList<>()).add(i);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int expected = 0;
+            int i = 0;
+            while (i < newLines.size()) {
+                List<Integer> candidates = positions.get(newLines.get(i));
+
+                int bestStart = -1;
+                int bestLength = 0;
+                if (candidates != null) {
+                    if (expected < oldLines.size() && oldLines.get(expected).equals(newLines.get(i))) {
+                        bestStart = expected;
+                        bestLength = runLength(oldLines, expected, newLines, i);
+                    }
+                    for (int c = 0; c < candidates.size() && c < MAX_CANDIDATES; c++) {
+                        int start = candidates.get(c);
+                        int length = runLength(oldLines, start, newLines, i);
+                        if (length > bestLength) {
+                            bestStart = start;
+                            bestLength = length;
+                        }
+                    }
+                }
+
+                if (bestLength > 0) {
+                    out.writeByte(COPY);
+                    out.writeInt(bestStart);
+                    out.writeInt(bestLength);
+                    expected = bestStart + bestLength;
+                    i += bestLength;
+                } else {
+                    byte[] line = newLines.get(i).getBytes(StandardCharsets.UTF_8);
+                    out.writeByte(INSERT);
+                    out.writeInt(line.length);
+                    out.write(line);
+                    i++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static String apply(String previous, byte[] delta) {
+        List<String> oldLines = lines(previous);
+        StringBuilder result = new StringBuilder(previous.length());
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(delta))) {
+            while (in.available() > 0) {
+                byte op = in.readByte();
+                if (op == COPY) {
+                    int start = in.readInt();
+                    int length = in.readInt();
+                    for (int i = start; i < start + length; i++) {
+                        result.append(oldLines.get(i));
+                    }
+                } else if (op == UNCHANGED) {
+                    result.append(previous);
+                } else if (op == INSERT) {
+                    byte[] line = new byte[in.readInt()];
+                    in.readFully(line);
+                    result.append(new String(line, StandardCharsets.UTF_8));
+                } else {
+                    throw new IllegalStateException("unknown delta op: " + op);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.toString();
+    }
+
+    // 줄바꿈 문자를 줄에 포함해서 나눈다, 다시 이어 붙이면 원래 문자열이 된다
+    private static List<String> lines(String text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines.add(text.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            lines.add(text.substring(start));
+        }
+        return lines;
+    }
+
+    private static int runLength(List<String> oldLines, int oldStart, List<String> newLines, int newStart) {
+        int length = 0;
+        while (oldStart + length < oldLines.size() && newStart + length < newLines.size()
+                && oldLines.get(oldStart + length).equals(newLines.get(newStart + length))) {
+            length++;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,77 @@
+package me.kkw.springboot_developer.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/*
+* 트랜잭셔널 아웃박스 (outbox_event 테이블)
+*
+* 글을 저장/수정/삭제하는 트랜잭션 안에서 이벤트 행을 같이 INSERT 한다.
+* 글 변경과 이벤트가 함께 커밋되거나 함께 롤백되니까, 커밋된 변경은 이벤트가 반드시 남고 롤백된 변경은 이벤트도 없다.
+* 실제 전달은 OutboxRelayService가 트랜잭션 밖에서 따로 한다.
+*
+* claimed_by, claimed_until은 릴레이가 이벤트를 가져갔다는 표시(lease)다.
+* 전달에 성공하면 행을 지우고, 실패하거나 릴레이가 죽으면 claimed_until이 지난 뒤 다시 가져간다. (at-least-once)
+* 소비하는 쪽은 id로 중복을 거르면 된다.
+*
+* aggregate_version은 이벤트가 쌓일 때의 글 버전(@Version)이다. 글 하나의 이벤트는 이 순서대로 전달되고,
+* 소비하는 쪽은 이미 본 버전보다 작거나 같은 이벤트를 버리면 된다.
+*/
+@Table(name = "outbox_event")
+@EntityListeners(AuditingEntityListener.class)
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, updatable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, updatable = false)
+    private Long aggregateId;
+
+    @Column(name = "aggregate_version", updatable = false)
+    private Long aggregateVersion;
+
+    // H2는 @Enumerated(STRING)을 ENUM 타입 컬럼으로 만들어서 스냅샷이 읽지 못한다, 그냥 문자열 컬럼으로 둔다
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "event_type", nullable = false, updatable = false, length = 20)
+    private ArticleEventType eventType;
+
+    // 이벤트 내용(JSON), 본문처럼 큰 값은 넣지 않는다. 필요하면 소비하는 쪽이 API로 읽는다
+    @Column(name = "payload", updatable = false, length = 2000)
+    private String payload;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    public OutboxEvent(String aggregateType, Long aggregateId, Long aggregateVersion,
+                       ArticleEventType eventType, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.aggregateVersion = aggregateVersion;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+}
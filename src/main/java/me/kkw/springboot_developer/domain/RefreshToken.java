@@ -6,12 +6,18 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class RefreshToken {
 
+    // 리프레시 토큰의 기본 유효 기간, 이 시간이 지나면 purge 작업이 행을 지운다
+    public static final Duration REFRESH_TOKEN_DURATION = Duration.ofDays(14);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", updatable = false)
@@ -23,13 +29,27 @@ public class RefreshToken {
     @Column(name = "refresh_token", nullable = false)
     private String refreshToken;
 
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     public RefreshToken(Long userId, String refreshToken) {
+        this(userId, refreshToken, LocalDateTime.now().plus(REFRESH_TOKEN_DURATION));
+    }
+
+    public RefreshToken(Long userId, String refreshToken, LocalDateTime expiresAt) {
         this.userId = userId;
         this.refreshToken = refreshToken;
+        this.expiresAt = expiresAt;
     }
 
     public RefreshToken update(String newRefreshToken) {
         this.refreshToken = newRefreshToken;
+        this.expiresAt = LocalDateTime.now().plus(REFRESH_TOKEN_DURATION);
         return this;
     }
+
+    // expiresAt이 비어 있는 예전 행은 만료되지 않은 것으로 본다
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
 }
@@ -0,0 +1,36 @@
+package me.kkw.springboot_developer.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+* 만료 전에 폐기된 액세스 토큰의 jti(JWT ID) 목록
+* 블룸 필터에 걸린 토큰만 이 테이블을 정확하게 확인한다
+* expiresAt이 지난 행은 토큰 자체가 만료돼서 더 이상 확인할 필요가 없으니 지워도 된다
+*/
+@Table(name = "revoked_token", indexes = @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at"))
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class RevokedToken {
+
+    @Id
+    @Column(name = "jti", updatable = false)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    public RevokedToken(String jti, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = LocalDateTime.now();
+    }
+}
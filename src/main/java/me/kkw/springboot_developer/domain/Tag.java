@@ -0,0 +1,46 @@
+package me.kkw.springboot_developer.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+
+/*
+* 글 태그 (tag 테이블)
+* 이름은 앞뒤 공백을 지우고 소문자로 맞춰서 저장한다, "Spring"과 "spring "은 같은 태그
+* 글과의 연결은 Article.tags (article_tag 테이블) 쪽에서 관리한다
+*/
+@Table(name = "tag")
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Tag {
+
+    public static final int MAX_NAME_LENGTH = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "name", nullable = false, unique = true, length = MAX_NAME_LENGTH)
+    private String name;
+
+    public Tag(String name) {
+        this.name = normalize(name);
+    }
+
+    public static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("tag must not be blank");
+        }
+
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        if (normalized.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("tag is longer than " + MAX_NAME_LENGTH + ": " + name);
+        }
+        return normalized;
+    }
+}
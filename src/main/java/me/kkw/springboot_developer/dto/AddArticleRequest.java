@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import me.kkw.springboot_developer.domain.Article;
 
+import java.util.List;
+
 /*
 * Data Transfer Object
 * 계층 간의 데이터 전송을 위한 객체임
@@ -21,6 +23,12 @@ public class AddArticleRequest {
 
     private String title;
     private String content;
+    // 선택, 없는 태그는 새로 만들어진다 (BlogService.save)
+    private List<String> tags;
+
+    public AddArticleRequest(String title, String content) {
+        this(title, content, null);
+    }
 
     public Article toEntity(String author) {
         return Article.builder()
@@ -0,0 +1,18 @@
+package me.kkw.springboot_developer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/*
+* 댓글 작성 요청
+* parentId가 있으면 그 댓글에 다는 답글
+*/
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddCommentRequest {
+
+    private String content;
+    private Long parentId;
+}
@@ -0,0 +1,38 @@
+package me.kkw.springboot_developer.dto;
+
+import lombok.Getter;
+import me.kkw.springboot_developer.domain.Article;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+* 변경 동기화 응답의 글 하나
+* 삭제된 글(deleted = true)은 클라이언트가 지울 수 있게 id만 의미가 있고 본문은 읽지 않는다
+*/
+@Getter
+public class ArticleChangeResponse {
+    private final Long id;
+    private final boolean deleted;
+    private final String title;
+    private final String content;
+    private final String author;
+    private final List<String> tags;
+    private final int commentCount;
+    private final Long version;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public ArticleChangeResponse(Article article) {
+        this.id = article.getId();
+        this.deleted = article.isDeleted();
+        this.title = deleted ? null : article.getTitle();
+        this.content = deleted ? null : article.getContent();
+        this.author = article.getAuthor();
+        this.tags = deleted ? List.of() : article.getTagNames();
+        this.commentCount = article.getCommentCount();
+        this.version = article.getVersion();
+        this.createdAt = article.getCreatedAt();
+        this.updatedAt = article.getUpdatedAt();
+    }
+}
@@ -0,0 +1,46 @@
+package me.kkw.springboot_developer.dto;
+
+import me.kkw.springboot_developer.domain.Article;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+
+/*
+* 변경 동기화의 워터마크
+* 마지막으로 내려준 변경의 (updatedAt, id)를 담고, 클라이언트에는 불투명한 문자열로 준다. (ArticleCursor와 같은 방식)
+* 클라이언트는 값을 해석하지 말고 다음 동기화 때 ?since=로 그대로 돌려보내면 된다.
+*/
+public record ArticleChangeToken(LocalDateTime updatedAt, Long id) implements Comparable<ArticleChangeToken> {
+
+    private static final Comparator<ArticleChangeToken> ORDER = Comparator
+            .comparing(ArticleChangeToken::updatedAt)
+            .thenComparing(ArticleChangeToken::id);
+
+    public static ArticleChangeToken of(Article article) {
+        return new ArticleChangeToken(article.getUpdatedAt(), article.getId());
+    }
+
+    public String encode() {
+        String raw = updatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ArticleChangeToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+
+            return new ArticleChangeToken(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid change token: " + token);
+        }
+    }
+
+    @Override
+    public int compareTo(ArticleChangeToken other) {
+        return ORDER.compare(this, other);
+    }
+}
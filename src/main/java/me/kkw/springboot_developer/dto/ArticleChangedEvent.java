@@ -0,0 +1,20 @@
+package me.kkw.springboot_developer.dto;
+
+import me.kkw.springboot_developer.domain.ArticleEventType;
+import me.kkw.springboot_developer.domain.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/*
+* 아웃박스에서 꺼내서 싱크로 보내는 글 변경 이벤트
+* eventId는 아웃박스 행의 id라서 같은 이벤트가 두 번 와도 소비하는 쪽에서 거를 수 있다
+* version은 글마다 늘어나는 순서 번호(글의 @Version)라서, 이미 본 버전 이하의 이벤트는 늦게 온 것으로 보고 버리면 된다
+*/
+public record ArticleChangedEvent(Long eventId, ArticleEventType type, Long articleId, Long version,
+                                  String payload, LocalDateTime occurredAt) {
+
+    public static ArticleChangedEvent of(OutboxEvent event) {
+        return new ArticleChangedEvent(event.getId(), event.getEventType(), event.getAggregateId(),
+                event.getAggregateVersion(), event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,12 @@
+package me.kkw.springboot_developer.dto;
+
+import java.util.List;
+
+/*
+* GET /api/articles/changes 응답
+* - changes: since 이후에 만들어지거나 고쳐지거나 삭제된 글, 바뀐 순서대로
+* - nextToken: 다음 동기화 때 since로 보낼 워터마크
+* - hasMore: true면 바로 nextToken으로 다음 페이지를 요청한다
+*/
+public record ArticleChangesResponse(List<ArticleChangeResponse> changes, String nextToken, boolean hasMore) {
+}
@@ -0,0 +1,36 @@
+package me.kkw.springboot_developer.dto;
+
+import me.kkw.springboot_developer.domain.Article;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/*
+* seek 페이지네이션의 커서
+* 마지막으로 보여준 글의 (createdAt, id)를 담고, 클라이언트에는 불투명한 문자열로 준다.
+* 클라이언트는 값을 해석하지 말고 다음 페이지를 요청할 때 그대로 돌려보내면 된다.
+*/
+public record ArticleCursor(LocalDateTime createdAt, Long id) {
+
+    public static ArticleCursor of(Article article) {
+        return new ArticleCursor(article.getCreatedAt(), article.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ArticleCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+
+            return new ArticleCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+    }
+}
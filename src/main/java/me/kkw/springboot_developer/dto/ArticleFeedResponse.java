@@ -0,0 +1,25 @@
+package me.kkw.springboot_developer.dto;
+
+import lombok.Getter;
+import me.kkw.springboot_developer.domain.Article;
+
+import java.util.List;
+
+/*
+* 작성자별 글 목록 API의 응답
+* 서비스는 size보다 하나 더 읽어오고, 하나가 더 있으면 다음 페이지가 있다는 뜻이라서
+* 마지막으로 보여준 글로 nextCursor를 만든다. 마지막 페이지면 nextCursor는 null
+* 목록에서는 본문을 읽지 않도록 ArticleSummaryResponse로 내려준다
+*/
+@Getter
+public class ArticleFeedResponse {
+    private final List<ArticleSummaryResponse> articles;
+    private final String nextCursor;
+
+    public ArticleFeedResponse(List<Article> articles, int size) {
+        List<Article> page = articles.size() > size ? articles.subList(0, size) : articles;
+
+        this.articles = page.stream().map(ArticleSummaryResponse::new).toList();
+        this.nextCursor = articles.size() > size ? ArticleCursor.of(page.getLast()).encode() : null;
+    }
+}
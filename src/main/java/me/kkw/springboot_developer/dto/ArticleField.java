@@ -0,0 +1,59 @@
+package me.kkw.springboot_developer.dto;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/*
+* ?fields=로 고를 수 있는 글 필드
+* 이름은 ArticleResponse/응답 JSON의 필드 이름과 같고, attribute는 Article 엔티티의 속성 이름이다
+* CONTENT는 article_body를, TAGS는 article_tag를 따로 읽어야 해서 attribute가 없다 (ArticleProjectionRepositoryImpl 참고)
+*/
+public enum ArticleField {
+    ID("id", "id"),
+    TITLE("title", "title"),
+    AUTHOR("author", "author"),
+    CONTENT("content", null),
+    TAGS("tags", null),
+    COMMENT_COUNT("commentCount", "commentCount"),
+    VERSION("version", "version"),
+    CREATED_AT("createdAt", "createdAt"),
+    UPDATED_AT("updatedAt", "updatedAt");
+
+    private final String fieldName;
+    private final String attribute;
+
+    ArticleField(String fieldName, String attribute) {
+        this.fieldName = fieldName;
+        this.attribute = attribute;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    // "id,title" -> [ID, TITLE], 요청한 순서를 지키고 중복은 한 번만, 모르는 이름이면 예외
+    public static Set<ArticleField> parse(String fields) {
+        Set<ArticleField> parsed = new LinkedHashSet<>();
+
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.fieldName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("unknown field: " + trimmed)));
+        }
+
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("fields must not be empty");
+        }
+        return parsed;
+    }
+}
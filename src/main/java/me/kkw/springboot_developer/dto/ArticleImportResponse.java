@@ -0,0 +1,58 @@
+package me.kkw.springboot_developer.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+* NDJSON 가져오기 결과
+* - read: 읽은 레코드(빈 줄 제외) 수
+* - imported: 저장된 글 수
+* - rejected: 검증에서 걸러진 레코드 수 (JSON이 아니거나 title/content가 없는 경우)
+* - failed: 검증은 통과했지만 저장하다 실패한 레코드 수
+* - errors: 실패한 줄 번호와 이유, maxErrors개까지만 담는다
+*/
+@Getter
+public class ArticleImportResponse {
+    private long read;
+    private long imported;
+    private long rejected;
+    private long failed;
+    private final List<LineError> errors = new ArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    private final int maxErrors;
+
+    public ArticleImportResponse(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void read() {
+        read++;
+    }
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    public void rejected(long line, String message) {
+        rejected++;
+        error(line, message);
+    }
+
+    public void failed(long line, String message) {
+        failed++;
+        error(line, message);
+    }
+
+    private void error(long line, String message) {
+        if (errors.size() < maxErrors) {
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    public record LineError(long line, String message) {
+    }
+}
@@ -20,17 +20,19 @@ import me.kkw.springboot_developer.domain.Article;
 * 요기서 final 키워드르 이 객체의 데이터가 절대 변하지 않는다는 것을 보장
 * final 키워드는 그리고 항상 생성자에서 초기화를 해주어야 함.
 * 그래서 항상 모든 값을 가진 완전한 상태로만 생성될 수 있음
+*
+* 본문은 별도 테이블(article_body)에 지연 로딩되므로 목록에서는 읽지 않는다.
 */
 
 @Getter
 public class ArticleListViewResponse {
     private final Long id;
     private final String title;
-    private final String content;
+    private final int commentCount;
 
     public ArticleListViewResponse(Article article) {
         this.id = article.getId();
         this.title = article.getTitle();
-        this.content = article.getContent();
+        this.commentCount = article.getCommentCount();
     }
 }
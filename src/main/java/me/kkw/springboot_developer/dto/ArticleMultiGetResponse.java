@@ -0,0 +1,11 @@
+package me.kkw.springboot_developer.dto;
+
+import java.util.List;
+
+/*
+* GET /api/articles?ids=1,2,3 응답
+* - articles: 찾은 글, 요청한 id 순서대로 (중복된 id는 한 번만)
+* - missing: 없거나 삭제된 글의 id, 요청한 순서대로
+*/
+public record ArticleMultiGetResponse(List<ArticleResponse> articles, List<Long> missing) {
+}
@@ -3,6 +3,8 @@ package me.kkw.springboot_developer.dto;
 import lombok.Getter;
 import me.kkw.springboot_developer.domain.Article;
 
+import java.util.List;
+
 /*
  * Data Transfer Object
  * 계층 간의 데이터 전송을 위한 객체임
@@ -15,12 +17,18 @@ import me.kkw.springboot_developer.domain.Article;
 
 @Getter
 public class ArticleResponse {
+    private final Long id;
     private final String title;
+    private final int commentCount;
+    private final List<String> tags;
     private final String content;
 
     // 생성자의 파라미터를 Article 객체로
     public ArticleResponse(Article article) {
+        this.id = article.getId();
         this.title = article.getTitle();
+        this.commentCount = article.getCommentCount();
+        this.tags = article.getTagNames();
         this.content = article.getContent();
     }
 }
@@ -0,0 +1,11 @@
+package me.kkw.springboot_developer.dto;
+
+import java.time.LocalDateTime;
+
+/*
+* 특정 리비전으로 복원한 글
+* GET /api/articles/{id}/revisions/{n}
+*/
+public record ArticleRevisionResponse(Long articleId, int revision, String title, String content,
+                                      LocalDateTime createdAt) {
+}
@@ -0,0 +1,30 @@
+package me.kkw.springboot_developer.dto;
+
+import lombok.Getter;
+import me.kkw.springboot_developer.domain.Article;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+* 목록 API용 요약 DTO
+* 본문(article_body)은 건드리지 않고 article 테이블에 있는 값만 담는다
+*/
+@Getter
+public class ArticleSummaryResponse {
+    private final Long id;
+    private final String title;
+    private final int commentCount;
+    private final List<String> tags;
+    private final String author;
+    private final LocalDateTime createdAt;
+
+    public ArticleSummaryResponse(Article article) {
+        this.id = article.getId();
+        this.title = article.getTitle();
+        this.commentCount = article.getCommentCount();
+        this.tags = article.getTagNames();
+        this.author = article.getAuthor();
+        this.createdAt = article.getCreatedAt();
+    }
+}
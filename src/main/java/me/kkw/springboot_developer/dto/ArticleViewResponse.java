@@ -26,6 +26,9 @@ import java.time.LocalDateTime;
 * 폼이 만들어져야 하기 때문에 기본 생성자로 객체 인스턴스를 생성한다.
 * (수정과 삭제가 너무 비슷해서 같안 DTO 사용하려고 시도중인 상황이라고 이해하면 더 와닿음)
 *
+* html은 저장할 때 렌더링해 둔 본문 HTML이다. 상세 화면은 이걸 그대로 출력하고,
+* 수정 화면은 원본 마크다운(content)을 보여준다.
+*
 */
 
 @NoArgsConstructor
@@ -34,14 +37,18 @@ public class ArticleViewResponse {
     private Long id;
     private String title;
     private String content;
+    private String html;
     private LocalDateTime createdAt;
     private String author;
+    private Long version;
 
     public ArticleViewResponse(Article article) {
         this.id = article.getId();
         this.title = article.getTitle();
         this.content = article.getContent();
+        this.html = article.getHtml();
         this.createdAt = article.getCreatedAt();
         this.author = article.getAuthor();
+        this.version = article.getVersion();
     }
 }
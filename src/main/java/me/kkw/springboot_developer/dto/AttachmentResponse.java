@@ -0,0 +1,29 @@
+package me.kkw.springboot_developer.dto;
+
+import lombok.Getter;
+import me.kkw.springboot_developer.domain.Attachment;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class AttachmentResponse {
+    private final Long id;
+    private final Long articleId;
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+    private final String sha256;
+    private final String url;
+    private final LocalDateTime createdAt;
+
+    public AttachmentResponse(Attachment attachment) {
+        this.id = attachment.getId();
+        this.articleId = attachment.getArticleId();
+        this.fileName = attachment.getFileName();
+        this.contentType = attachment.getContentType();
+        this.size = attachment.getSize();
+        this.sha256 = attachment.getSha256();
+        this.url = "/api/attachments/" + attachment.getId();
+        this.createdAt = attachment.getCreatedAt();
+    }
+}
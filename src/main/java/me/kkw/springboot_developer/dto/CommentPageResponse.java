@@ -0,0 +1,24 @@
+package me.kkw.springboot_developer.dto;
+
+import lombok.Getter;
+import me.kkw.springboot_developer.domain.Comment;
+
+import java.util.List;
+
+/*
+* 댓글 목록 한 페이지
+* ArticleFeedResponse처럼 size보다 하나 더 읽어서 다음 페이지가 있는지 판단한다
+* 다음 페이지는 nextCursor(마지막 댓글 id)를 ?cursor=로 넘겨서 요청한다, 마지막 페이지면 null
+*/
+@Getter
+public class CommentPageResponse {
+    private final List<CommentResponse> comments;
+    private final Long nextCursor;
+
+    public CommentPageResponse(List<Comment> comments, int size) {
+        List<Comment> page = comments.size() > size ? comments.subList(0, size) : comments;
+
+        this.comments = page.stream().map(CommentResponse::new).toList();
+        this.nextCursor = comments.size() > size ? page.getLast().getId() : null;
+    }
+}
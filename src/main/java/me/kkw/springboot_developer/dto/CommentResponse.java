@@ -0,0 +1,23 @@
+package me.kkw.springboot_developer.dto;
+
+import lombok.Getter;
+import me.kkw.springboot_developer.domain.Comment;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class CommentResponse {
+    private final Long id;
+    private final Long parentId;
+    private final String author;
+    private final String content;
+    private final LocalDateTime createdAt;
+
+    public CommentResponse(Comment comment) {
+        this.id = comment.getId();
+        this.parentId = comment.getParentId();
+        this.author = comment.getAuthor();
+        this.content = comment.getContent();
+        this.createdAt = comment.getCreatedAt();
+    }
+}
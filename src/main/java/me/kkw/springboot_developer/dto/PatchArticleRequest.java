@@ -0,0 +1,39 @@
+package me.kkw.springboot_developer.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+* PATCH /api/articles/{id}의 요청 (JSON Merge Patch, RFC 7396)
+*
+* 보낸 필드만 바뀌고 보내지 않은 필드는 그대로 둔다. 그래서 null이면 "바꾸지 않음"이다.
+* Merge Patch에서 필드에 null을 보내면 "지우기"라는 뜻인데,
+* title과 content는 필수 값이라 지울 수 없으니 그런 요청은 from()에서 거절한다.
+*/
+@Getter
+@AllArgsConstructor
+public class PatchArticleRequest {
+    private String title;
+    private String content;
+
+    public static PatchArticleRequest from(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("merge patch must be a JSON object");
+        }
+
+        return new PatchArticleRequest(textField(patch, "title"), textField(patch, "content"));
+    }
+
+    private static String textField(JsonNode patch, String name) {
+        JsonNode value = patch.get(name);
+
+        if (value == null) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException(name + " must be a string");
+        }
+        return value.asText();
+    }
+}
@@ -0,0 +1,10 @@
+package me.kkw.springboot_developer.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RevokeAccessTokenRequest {
+    private String accessToken;
+}
@@ -0,0 +1,8 @@
+package me.kkw.springboot_developer.dto;
+
+/*
+* 인기 글 한 건
+* score는 최근 구간일수록 가중치를 크게 준 조회 수 추정치다
+*/
+public record TrendingArticleResponse(Long id, String title, String author, double score) {
+}
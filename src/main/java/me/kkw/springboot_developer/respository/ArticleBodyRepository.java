@@ -0,0 +1,32 @@
+package me.kkw.springboot_developer.respository;
+
+import jakarta.persistence.QueryHint;
+import me.kkw.springboot_developer.domain.ArticleBody;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ArticleBodyRepository extends JpaRepository<ArticleBody, Long> {
+
+    // LOB을 읽지 않고 길이 컬럼만 더해서 압축으로 아낀 용량을 계산한다
+    @Query("select coalesce(sum(b.rawLength), 0) from ArticleBody b")
+    long sumRawLength();
+
+    @Query("select coalesce(sum(b.storedLength), 0) from ArticleBody b")
+    long sumStoredLength();
+
+    // 렌더링된 HTML이 없거나 version보다 예전 렌더러로 만든 본문 (MarkdownRerenderService)
+    @Query("select b.id from ArticleBody b where b.rendererVersion is null or b.rendererVersion < :version " +
+            "order by b.id")
+    List<Long> findStaleRenderIds(@Param("version") int version, Pageable limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "article_body"))
+    @Query(value = "DELETE FROM article_body WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
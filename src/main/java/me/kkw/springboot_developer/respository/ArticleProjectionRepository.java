@@ -0,0 +1,25 @@
+package me.kkw.springboot_developer.respository;
+
+import me.kkw.springboot_developer.dto.ArticleField;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+* 필드 선택 조회 (?fields=id,title)
+* 고른 필드의 컬럼만 SELECT 하는 동적 projection이라서 엔티티를 만들지 않고,
+* content를 고르지 않으면 article_body는 조인도 하지 않는다.
+* 결과는 고른 순서대로 필드 이름 -> 값이 들어 있는 Map
+*
+* 메소드 이름 규칙이나 @Query로는 런타임에 SELECT 절을 바꿀 수 없어서
+* 스프링 데이터의 커스텀 구현(이름이 Impl로 끝나는 클래스)으로 Criteria 쿼리를 만든다. BlogRepository가 같이 상속한다.
+*/
+public interface ArticleProjectionRepository {
+
+    // tag가 null이면 전체 글
+    List<Map<String, Object>> findAllProjected(Set<ArticleField> fields, String tag);
+
+    Optional<Map<String, Object>> findProjectedById(long id, Set<ArticleField> fields);
+}
@@ -0,0 +1,116 @@
+package me.kkw.springboot_developer.respository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleBody;
+import me.kkw.springboot_developer.domain.Tag;
+import me.kkw.springboot_developer.dto.ArticleField;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class ArticleProjectionRepositoryImpl implements ArticleProjectionRepository {
+
+    // 본문은 압축된 채로 저장되어 있어서 푸는 데 필요한 컬럼을 같이 읽는다
+    private static final String BODY_DATA = "bodyData";
+    private static final String BODY_COMPRESSED = "bodyCompressed";
+    private static final String BODY_RAW_LENGTH = "bodyRawLength";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findAllProjected(Set<ArticleField> fields, String tag) {
+        return find(fields, null, tag);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findProjectedById(long id, Set<ArticleField> fields) {
+        return find(fields, id, null).stream().findFirst();
+    }
+
+    private List<Map<String, Object>> find(Set<ArticleField> fields, Long id, String tag) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Article> article = query.from(Article.class);
+
+        // 태그를 붙이려면 글 id가 필요해서 id는 항상 읽는다 (응답에는 고른 경우만 나간다)
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(article.get("id").alias(ArticleField.ID.fieldName()));
+
+        for (ArticleField field : fields) {
+            if (field.attribute() != null && field != ArticleField.ID) {
+                selections.add(article.get(field.attribute()).alias(field.fieldName()));
+            }
+        }
+
+        if (fields.contains(ArticleField.CONTENT)) {
+            Join<Article, ArticleBody> body = article.join("body");
+            selections.add(body.get("data").alias(BODY_DATA));
+            selections.add(body.get("compressed").alias(BODY_COMPRESSED));
+            selections.add(body.get("rawLength").alias(BODY_RAW_LENGTH));
+        }
+
+        query.multiselect(selections);
+        if (id != null) {
+            query.where(cb.equal(article.get("id"), id));
+        } else if (tag != null) {
+            Join<Article, Tag> tags = article.join("tags");
+            query.where(cb.equal(tags.get("name"), tag));
+        }
+        query.orderBy(cb.asc(article.get("id")));
+
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        Map<Long, List<String>> tagNames = fields.contains(ArticleField.TAGS) ? findTagNames(rows) : Map.of();
+
+        return rows.stream().map(row -> toMap(row, fields, tagNames)).toList();
+    }
+
+    private static Map<String, Object> toMap(Tuple row, Set<ArticleField> fields, Map<Long, List<String>> tagNames) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        Long id = row.get(ArticleField.ID.fieldName(), Long.class);
+
+        for (ArticleField field : fields) {
+            Object value = switch (field) {
+                case CONTENT -> ArticleBody.decode(row.get(BODY_DATA, byte[].class),
+                        row.get(BODY_COMPRESSED, Boolean.class), row.get(BODY_RAW_LENGTH, Integer.class));
+                case TAGS -> tagNames.getOrDefault(id, List.of());
+                default -> row.get(field.fieldName());
+            };
+            values.put(field.fieldName(), value);
+        }
+        return values;
+    }
+
+    // 읽은 글들의 태그를 쿼리 하나로 가져온다
+    private Map<Long, List<String>> findTagNames(List<Tuple> rows) {
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> ids = rows.stream().map(row -> row.get(ArticleField.ID.fieldName(), Long.class)).toList();
+        List<Object[]> links = entityManager.createQuery(
+                        "select a.id, t.name from Article a join a.tags t where a.id in :ids order by t.name",
+                        Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        Map<Long, List<String>> tagNames = new HashMap<>();
+        for (Object[] link : links) {
+            tagNames.computeIfAbsent((Long) link[0], key -> new ArrayList<>()).add((String) link[1]);
+        }
+        return tagNames;
+    }
+}
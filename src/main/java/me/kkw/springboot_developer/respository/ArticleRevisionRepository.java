@@ -0,0 +1,25 @@
+package me.kkw.springboot_developer.respository;
+
+import jakarta.persistence.QueryHint;
+import me.kkw.springboot_developer.domain.ArticleRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ArticleRevisionRepository extends JpaRepository<ArticleRevision, Long> {
+
+    Optional<ArticleRevision> findTopByArticleIdOrderByRevisionDesc(Long articleId);
+
+    // 가장 가까운 스냅샷부터 원하는 리비전까지, 최대 SNAPSHOT_INTERVAL개
+    List<ArticleRevision> findByArticleIdAndRevisionBetweenOrderByRevisionAsc(Long articleId, int from, int to);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "article_revision"))
+    @Query(value = "DELETE FROM article_revision WHERE article_id IN (:articleIds)", nativeQuery = true)
+    int deleteByArticleIds(@Param("articleIds") List<Long> articleIds);
+}
@@ -0,0 +1,24 @@
+package me.kkw.springboot_developer.respository;
+
+import jakarta.persistence.QueryHint;
+import me.kkw.springboot_developer.domain.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+
+    List<Attachment> findByArticleIdOrderById(Long articleId);
+
+    @Query(value = "SELECT DISTINCT sha256 FROM attachment WHERE sha256 IN (:hashes)", nativeQuery = true)
+    List<String> findExistingSha256(@Param("hashes") List<String> hashes);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "attachment"))
+    @Query(value = "DELETE FROM attachment WHERE article_id IN (:articleIds)", nativeQuery = true)
+    int deleteByArticleIds(@Param("articleIds") List<Long> articleIds);
+}
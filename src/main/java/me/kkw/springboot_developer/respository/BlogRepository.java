@@ -1,7 +1,18 @@
 package me.kkw.springboot_developer.respository;
 
+import jakarta.persistence.QueryHint;
 import me.kkw.springboot_developer.domain.Article;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 /*
 * 데이터베이스와 소통을 담당함.
@@ -10,5 +21,104 @@ import org.springframework.data.jpa.repository.JpaRepository;
 * JpaRepository를 상속받는 것만으로도 save(), findAll(), findById() 같은 기본적인 데이터 처리 메소드를 자동으로 사용 가능
 *
 */
-public interface BlogRepository extends JpaRepository<Article, Long> {
+public interface BlogRepository extends JpaRepository<Article, Long>, ArticleProjectionRepository {
+
+    // 본문(ArticleBody)까지 한 번에 조인해서 읽는다, 본문이 꼭 필요한 곳에서만 쓴다
+    @EntityGraph(attributePaths = "body")
+    Optional<Article> findWithBodyById(Long id);
+
+    @EntityGraph(attributePaths = "body")
+    @Query("select a from Article a")
+    List<Article> findAllWithBody();
+
+    /*
+    * 댓글 수만 고치는 UPDATE (CommentService), 삭제된 글이나 없는 글이면 0을 돌려준다
+    * 엔티티를 dirty로 만들지 않으니 @Version, updated_at(auditing)이 그대로라 글의 ETag가 바뀌지 않는다
+    * comment_count + :delta 한 문장이라 락 없이도 동시에 달린 댓글 수가 어긋나지 않는다
+    *
+    * 하이버네이트는 벌크 UPDATE를 실행하면 그 엔티티의 2차 캐시 영역을 통째로 비운다 (네이티브 쿼리는 모든 영역).
+    * 댓글 하나에 글 캐시 전체가 날아가지 않도록 어느 영역에도 없는 쿼리 공간을 지정하고,
+    * 바뀐 글 하나만 CommentService가 직접 비운다
+    */
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "article_comment_count"))
+    @Query(value = "update article set comment_count = greatest(comment_count + :delta, 0) "
+            + "where id = :id and deleted_at is null", nativeQuery = true)
+    int addCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /*
+    * 작성자별 글 목록 (seek 페이지네이션)
+    * OFFSET으로 건너뛰면 앞 페이지의 행을 전부 읽고 버려야 하지만,
+    * 마지막으로 본 글의 (createdAt, id) 다음부터 읽으면 (author, created_at, id) 인덱스에서
+    * 바로 그 위치를 찾아가기 때문에 몇 번째 페이지든, 전체 글이 몇 개든 비용이 같다.
+    * Pageable은 LIMIT으로만 쓰고 항상 PageRequest.of(0, size)로 넘긴다.
+    */
+    @Query("select a from Article a where a.author = :author " +
+            "order by a.createdAt desc, a.id desc")
+    List<Article> findByAuthorFirstPage(@Param("author") String author, Pageable limit);
+
+    @Query("select a from Article a where a.author = :author " +
+            "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id)) " +
+            "order by a.createdAt desc, a.id desc")
+    List<Article> findByAuthorBefore(@Param("author") String author,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable limit);
+
+    /*
+    * 태그로 거른 글 목록
+    * tag.name의 유니크 인덱스로 태그를 찾고, article_tag의 (tag_id, article_id) 인덱스로 글 id를 찾는다
+    * 태그가 하나인 글만 거르기 때문에 join으로 행이 늘어나지 않는다
+    */
+    @Query("select a from Article a join a.tags t where t.name = :tag")
+    List<Article> findAllByTag(@Param("tag") String tag);
+
+    @Query("select a from Article a join a.tags t where a.author = :author and t.name = :tag " +
+            "order by a.createdAt desc, a.id desc")
+    List<Article> findByAuthorAndTagFirstPage(@Param("author") String author, @Param("tag") String tag,
+                                              Pageable limit);
+
+    @Query("select a from Article a join a.tags t where a.author = :author and t.name = :tag " +
+            "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id)) " +
+            "order by a.createdAt desc, a.id desc")
+    List<Article> findByAuthorAndTagBefore(@Param("author") String author,
+                                           @Param("tag") String tag,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable limit);
+
+    /*
+    * tombstone 정리(compaction)용 쿼리
+    * Article의 @SQLRestriction 때문에 JPQL로는 삭제된 행이 보이지 않아서 네이티브 SQL을 쓴다
+    */
+    @Query(value = "SELECT id FROM article WHERE deleted_at < :cutoff ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findTombstonedIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Query(value = "SELECT body_id FROM article WHERE id IN (:ids)", nativeQuery = true)
+    List<Long> findBodyIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "article"))
+    @Query(value = "DELETE FROM article WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int hardDeleteByIds(@Param("ids") List<Long> ids);
+
+    /*
+    * 변경 동기화용 쿼리 (ArticleSyncService)
+    * tombstone도 내려줘야 해서 @SQLRestriction을 거치지 않는 네이티브 SQL을 쓴다
+    * (updated_at, id) 인덱스에서 마지막으로 받은 위치 다음부터 읽어서, 바뀐 글 수만큼만 비용이 든다
+    * until보다 최근 변경은 아직 커밋 중인 트랜잭션이 끼어들 수 있어서 어느 페이지에서도 읽지 않는다
+    */
+    @Query(value = "SELECT * FROM article WHERE updated_at < :until " +
+            "ORDER BY updated_at, id LIMIT :limit", nativeQuery = true)
+    List<Article> findChangesFirstPage(@Param("until") LocalDateTime until,
+                                       @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM article WHERE updated_at >= :updatedAt " +
+            "AND (updated_at > :updatedAt OR id > :id) AND updated_at < :until " +
+            "ORDER BY updated_at, id LIMIT :limit", nativeQuery = true)
+    List<Article> findChangesAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                   @Param("id") Long id,
+                                   @Param("until") LocalDateTime until,
+                                   @Param("limit") int limit);
 }
@@ -0,0 +1,35 @@
+package me.kkw.springboot_developer.respository;
+
+import jakarta.persistence.QueryHint;
+import me.kkw.springboot_developer.domain.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    /*
+    * 글의 댓글 목록 (keyset 페이지네이션, 작성 순서)
+    * (article_id, id) 인덱스에서 마지막으로 본 댓글 id 다음 위치부터 읽는다
+    * Pageable은 LIMIT으로만 쓴다 (BlogRepository.findByAuthor... 와 같은 방식)
+    */
+    @Query("select c from Comment c where c.articleId = :articleId order by c.id")
+    List<Comment> findFirstPage(@Param("articleId") Long articleId, Pageable limit);
+
+    @Query("select c from Comment c where c.articleId = :articleId and c.id > :after order by c.id")
+    List<Comment> findPageAfter(@Param("articleId") Long articleId, @Param("after") Long after, Pageable limit);
+
+    @Modifying
+    @Query("delete from Comment c where c.parentId = :parentId")
+    int deleteReplies(@Param("parentId") Long parentId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "comment"))
+    @Query(value = "DELETE FROM comment WHERE article_id IN (:articleIds)", nativeQuery = true)
+    int deleteByArticleIds(@Param("articleIds") List<Long> articleIds);
+}
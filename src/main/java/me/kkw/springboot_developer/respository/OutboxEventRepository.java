@@ -0,0 +1,47 @@
+package me.kkw.springboot_developer.respository;
+
+import me.kkw.springboot_developer.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /*
+    * 아무도 가져가지 않았거나 lease가 끝난 이벤트를 오래된 순서로 잠근다
+    * SKIP LOCKED라서 다른 릴레이가 잠근 행은 기다리지 않고 건너뛴다. 여러 노드가 같이 돌아도 서로 막지 않는다
+    */
+    @Query(value = "SELECT id FROM outbox_event WHERE claimed_until IS NULL OR claimed_until < :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedBy = :owner, e.claimedUntil = :until where e.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    List<OutboxEvent> findByIdInOrderById(Collection<Long> ids);
+
+    /*
+    * 가져가려는 이벤트와 같은 글의, 그보다 먼저 쌓인 이벤트의 (id, aggregate_id) (OutboxRelayService가 순서를 지키는 데 쓴다)
+    * 잠그지 않고 읽기만 하니까 다른 릴레이가 잠그거나 가져간 행도 보인다
+    */
+    @Query("select e.id, e.aggregateId from OutboxEvent e where e.aggregateType = :type " +
+            "and e.aggregateId in :aggregateIds and e.id <= :maxId order by e.id")
+    List<Object[]> findPendingIds(@Param("type") String aggregateType,
+                                  @Param("aggregateIds") Collection<Long> aggregateIds,
+                                  @Param("maxId") Long maxId);
+
+    // 전달에 실패한 배치를 lease가 끝나기를 기다리지 않고 바로 다시 가져갈 수 있게 놓아준다
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedBy = null, e.claimedUntil = null where e.id in :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
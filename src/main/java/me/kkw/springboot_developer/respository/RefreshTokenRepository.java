@@ -1,11 +1,39 @@
 package me.kkw.springboot_developer.respository;
 
 import me.kkw.springboot_developer.domain.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByUserId(Long userId);
     Optional<RefreshToken> findByRefreshToken(String RefreshToken);
+
+    /*
+    * fromId부터 기본키 순서로 다음 배치의 id (RefreshTokenPurgeService)
+    * 기본키 인덱스만 타니까 비어 있는 id 구간을 훑지 않고 실제 행 수만큼만 읽는다
+    * Pageable은 LIMIT으로만 쓴다
+    */
+    @Query("select r.id from RefreshToken r where r.id >= :fromId order by r.id")
+    List<Long> findIdsFrom(@Param("fromId") Long fromId, Pageable limit);
+
+    /*
+    * [fromId, toId) 기본키 범위 안에서 만료됐거나 주인(User)이 사라진 토큰을 지운다
+    * 기본키 범위로 잘라서 지우기 때문에 한 번에 잡는 락의 범위와 시간이 배치 크기로 제한된다
+    * 메소드마다 트랜잭션이 따로 열리도록 @Transactional을 여기에 붙였다
+    */
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken r where r.id >= :fromId and r.id < :toId " +
+            "and (r.expiresAt < :now or not exists (select u.id from User u where u.id = r.userId))")
+    int deleteExpiredOrOrphanedInRange(@Param("fromId") Long fromId,
+                                       @Param("toId") Long toId,
+                                       @Param("now") LocalDateTime now);
 }
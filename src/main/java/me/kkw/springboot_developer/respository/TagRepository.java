@@ -0,0 +1,22 @@
+package me.kkw.springboot_developer.respository;
+
+import jakarta.persistence.QueryHint;
+import me.kkw.springboot_developer.domain.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    List<Tag> findByNameIn(Collection<String> names);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "article_tag"))
+    @Query(value = "DELETE FROM article_tag WHERE article_id IN (:articleIds)", nativeQuery = true)
+    int deleteArticleLinks(@Param("articleIds") List<Long> articleIds);
+}
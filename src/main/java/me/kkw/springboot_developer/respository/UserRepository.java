@@ -1,10 +1,17 @@
 package me.kkw.springboot_developer.respository;
 
+import jakarta.persistence.QueryHint;
 import me.kkw.springboot_developer.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // 로그인할 때마다 호출되는 조회라서 쿼리 캐시에 결과(User의 id)를 남겨둔다
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "query.User.findByEmail")
+    })
     Optional<User> findByEmail(String email);
 }
@@ -0,0 +1,24 @@
+package me.kkw.springboot_developer.service;
+
+import lombok.RequiredArgsConstructor;
+import me.kkw.springboot_developer.dto.ArticleChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+* 같은 프로세스 안의 @EventListener(ArticleChangedEvent)에게 이벤트를 전달하는 싱크
+* 리스너는 릴레이 스레드에서 바로 실행되고, 리스너가 예외를 던지면 배치가 다시 전달된다
+*/
+@RequiredArgsConstructor
+@Component
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<ArticleChangedEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,34 @@
+package me.kkw.springboot_developer.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import me.kkw.springboot_developer.respository.ArticleBodyRepository;
+import org.springframework.stereotype.Component;
+
+/*
+* 본문 압축 효과를 보여주는 메트릭
+* - article.body.raw.bytes: 압축하지 않았다면 필요했을 본문 크기 합계
+* - article.body.stored.bytes: 실제로 저장된 본문 크기 합계
+* 두 값의 차이가 압축으로 아낀 용량이다.
+*
+* 목록 조회 시간은 actuator가 자동으로 남기는
+* spring.data.repository.invocations(BlogRepository.findAll 등)와 http.server.requests로 확인한다.
+*/
+@RequiredArgsConstructor
+@Component
+public class ArticleBodyMetrics implements MeterBinder {
+
+    private final ArticleBodyRepository articleBodyRepository;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("article.body.raw.bytes", articleBodyRepository, ArticleBodyRepository::sumRawLength)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("article.body.stored.bytes", articleBodyRepository, ArticleBodyRepository::sumStoredLength)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
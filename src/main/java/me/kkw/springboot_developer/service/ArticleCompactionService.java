@@ -0,0 +1,91 @@
+package me.kkw.springboot_developer.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.kkw.springboot_developer.config.ArticleCompactionProperties;
+import me.kkw.springboot_developer.respository.ArticleBodyRepository;
+import me.kkw.springboot_developer.respository.ArticleRevisionRepository;
+import me.kkw.springboot_developer.respository.AttachmentRepository;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import me.kkw.springboot_developer.respository.CommentRepository;
+import me.kkw.springboot_developer.respository.TagRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+* 삭제된 글(tombstone)을 실제로 지우는 백그라운드 작업
+*
+* DELETE /api/articles/{id}는 deleted_at만 채우고 바로 응답한다.
+* 이 작업은 한가한 시간(article.compaction.cron)에 retention이 지난 tombstone을
+* batch-size개씩 골라서 딸린 데이터와 함께 한 트랜잭션으로 지운다.
+* 배치마다 커밋하기 때문에 락이 오래 잡히지 않고, 중간에 실패해도 다음 실행에서 이어서 지운다.
+*
+* 딸린 데이터는 외래 키가 있는 쪽부터 먼저 지우고 마지막에 article 행을 지운다.
+* 첨부 파일은 행만 지운다. 같은 내용을 다른 글이 쓰고 있거나 지금 막 올리는 중일 수 있어서
+* 파일은 유예 시간이 지난 뒤에 AttachmentSweepService가 따로 지운다.
+*
+* 지우는 쿼리는 모두 네이티브 SQL이라 하이버네이트는 기본으로 2차 캐시 영역을 전부 비운다.
+* 쿼리마다 건드리는 테이블을 query space로 적어 두어서 (각 레포지토리의 @QueryHints) 그 테이블의 영역만 비워진다.
+*/
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ArticleCompactionService {
+
+    private final BlogRepository blogRepository;
+    private final ArticleBodyRepository articleBodyRepository;
+    private final ArticleRevisionRepository articleRevisionRepository;
+    private final TagRepository tagRepository;
+    private final CommentRepository commentRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final ArticleCompactionProperties compactionProperties;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(cron = "${article.compaction.cron:0 0 4 * * *}")
+    public int compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(compactionProperties.getRetention());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int compacted = 0;
+
+        for (int batch = 0; batch < compactionProperties.getMaxBatchesPerRun(); batch++) {
+            List<Long> ids = blogRepository.findTombstonedIds(cutoff, compactionProperties.getBatchSize());
+
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer deleted = transaction.execute(status -> deleteBatch(ids));
+            compacted += deleted == null ? 0 : deleted;
+        }
+
+        meterRegistry.counter("article.compaction.rows").increment(compacted);
+
+        if (compacted > 0) {
+            log.info("compacted {} deleted articles", compacted);
+        }
+        return compacted;
+    }
+
+    private int deleteBatch(List<Long> ids) {
+        articleRevisionRepository.deleteByArticleIds(ids);
+        tagRepository.deleteArticleLinks(ids);
+        commentRepository.deleteByArticleIds(ids);
+        attachmentRepository.deleteByArticleIds(ids);
+
+        // article이 article_body를 가리키고 있으니 글을 먼저 지우고 본문을 지운다
+        List<Long> bodyIds = blogRepository.findBodyIds(ids);
+        int deleted = blogRepository.hardDeleteByIds(ids);
+
+        if (!bodyIds.isEmpty()) {
+            articleBodyRepository.deleteByIds(bodyIds);
+        }
+        return deleted;
+    }
+}
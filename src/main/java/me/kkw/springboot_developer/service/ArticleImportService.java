@@ -0,0 +1,268 @@
+package me.kkw.springboot_developer.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import me.kkw.springboot_developer.config.ArticleImportProperties;
+import me.kkw.springboot_developer.domain.ArticleBody;
+import me.kkw.springboot_developer.domain.ArticleEventType;
+import me.kkw.springboot_developer.dto.AddArticleRequest;
+import me.kkw.springboot_developer.dto.ArticleImportResponse;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+* NDJSON(한 줄에 JSON 객체 하나) 파일로 글을 대량으로 가져온다
+*
+* 파일 전체를 읽어 두지 않고 한 줄씩 읽어서 Jackson 스트리밍 파서(JsonParser)로 title, content만 뽑아
+* AddArticleRequest로 검증한다. 메모리에는 지금 배치(batch-size개)만 있어서 파일 크기와 상관없이 일정하다.
+*
+* 저장은 JPA를 거치지 않고 JDBC 배치로 한다.
+* Article과 ArticleBody의 id가 IDENTITY라서 하이버네이트는 INSERT를 배치로 묶지 못하고,
+* 영속성 컨텍스트에 쌓이는 엔티티를 flush/clear 할 필요도 없어진다.
+* 배치마다 article_body를 먼저 넣고 생성된 키로 article을 넣는데, 이 둘을 한 트랜잭션으로 커밋한다.
+* BlogService.save처럼 글마다 CREATED 이벤트를 outbox_event에 같은 트랜잭션으로 넣어서, 가져온 글도 아웃박스로 나간다.
+*
+* 배치가 실패하면 그 배치만 롤백하고 한 건씩 다시 넣어서 문제 있는 줄만 failed로 남긴다.
+* 나머지 파일은 계속 가져온다.
+*/
+@Slf4j
+@Service
+public class ArticleImportService {
+
+    private static final String INSERT_BODY = "INSERT INTO article_body (data, compressed, raw_length, stored_length) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_ARTICLE = "INSERT INTO article (title, body_id, author, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_EVENT = "INSERT INTO outbox_event "
+            + "(aggregate_type, aggregate_id, aggregate_version, event_type, payload, created_at) "
+            + "VALUES (?, ?, 0, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory;
+    private final ArticleImportProperties importProperties;
+    private final MeterRegistry meterRegistry;
+    private final OutboxService outboxService;
+
+    public ArticleImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper, ArticleImportProperties importProperties,
+                                MeterRegistry meterRegistry, OutboxService outboxService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonFactory = objectMapper.getFactory();
+        this.importProperties = importProperties;
+        this.meterRegistry = meterRegistry;
+        this.outboxService = outboxService;
+    }
+
+    public ArticleImportResponse importArticles(InputStream ndjson, String author) {
+        // 0이나 음수로 설정되면 나누기가 터지거나 배치가 끝없이 작아지니까 최소 1로 맞춘다
+        int batchSize = Math.max(1, importProperties.getBatchSize());
+        int progressInterval = Math.max(1, importProperties.getProgressInterval());
+        ArticleImportResponse result = new ArticleImportResponse(Math.max(0, importProperties.getMaxReportedErrors()));
+        List<PendingArticle> batch = new ArrayList<>(batchSize);
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.read();
+
+                try {
+                    batch.add(new PendingArticle(lineNumber, parse(line)));
+                } catch (IllegalArgumentException | IOException e) {
+                    result.rejected(lineNumber, e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, author, result);
+                }
+                if (result.getRead() % progressInterval == 0) {
+                    log.info("article import: read {}, imported {}, rejected {}, failed {}",
+                            result.getRead(), result.getImported(), result.getRejected(), result.getFailed());
+                }
+            }
+            flush(batch, author, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        meterRegistry.counter("article.import.records", "result", "imported").increment(result.getImported());
+        meterRegistry.counter("article.import.records", "result", "rejected").increment(result.getRejected());
+        meterRegistry.counter("article.import.records", "result", "failed").increment(result.getFailed());
+
+        log.info("article import finished in {} ms: read {}, imported {}, rejected {}, failed {}",
+                (System.nanoTime() - start) / 1_000_000,
+                result.getRead(), result.getImported(), result.getRejected(), result.getFailed());
+        return result;
+    }
+
+    // 한 줄을 AddArticleRequest로, 모르는 필드는 건너뛴다
+    private AddArticleRequest parse(String line) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("record must be a JSON object");
+            }
+
+            String title = null;
+            String content = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "title" -> title = text(field, value, parser);
+                    case "content" -> content = text(field, value, parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("trailing data after record");
+            }
+
+            if (title == null || title.isBlank()) {
+                throw new IllegalArgumentException("title is required");
+            }
+            if (title.length() > importProperties.getMaxTitleLength()) {
+                throw new IllegalArgumentException("title is longer than " + importProperties.getMaxTitleLength());
+            }
+            if (content == null) {
+                throw new IllegalArgumentException("content is required");
+            }
+            return new AddArticleRequest(title, content);
+        }
+    }
+
+    private static String text(String field, JsonToken value, JsonParser parser) throws IOException {
+        if (value != JsonToken.VALUE_STRING) {
+            throw new IllegalArgumentException(field + " must be a string");
+        }
+        return parser.getText();
+    }
+
+    private void flush(List<PendingArticle> batch, String author, ArticleImportResponse result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            result.imported(insert(batch, author));
+        } catch (DataAccessException e) {
+            log.warn("article import batch failed, retrying one by one", e);
+
+            for (PendingArticle article : batch) {
+                try {
+                    result.imported(insert(List.of(article), author));
+                } catch (DataAccessException single) {
+                    result.failed(article.line(), single.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private int insert(List<PendingArticle> batch, String author) {
+        Integer inserted = transactionTemplate.execute(status -> jdbcTemplate.execute((Connection connection) -> {
+            long[] bodyIds = insertBodies(connection, batch);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            long[] articleIds = insertArticles(connection, batch, bodyIds, author, now);
+            insertEvents(connection, batch, articleIds, author, now);
+            return batch.size();
+        }));
+        return inserted == null ? 0 : inserted;
+    }
+
+    private static long[] insertArticles(Connection connection, List<PendingArticle> batch, long[] bodyIds,
+                                         String author, Timestamp now) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_ARTICLE, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < batch.size(); i++) {
+                insert.setString(1, batch.get(i).request().getTitle());
+                insert.setLong(2, bodyIds[i]);
+                insert.setString(3, author);
+                insert.setTimestamp(4, now);
+                insert.setTimestamp(5, now);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            return generatedKeys(insert, batch.size());
+        }
+    }
+
+    // 가져온 글은 태그가 없고 버전은 0이다
+    private void insertEvents(Connection connection, List<PendingArticle> batch, long[] articleIds,
+                              String author, Timestamp now) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_EVENT)) {
+            for (int i = 0; i < batch.size(); i++) {
+                insert.setString(1, OutboxService.ARTICLE_AGGREGATE);
+                insert.setLong(2, articleIds[i]);
+                insert.setString(3, ArticleEventType.CREATED.name());
+                insert.setString(4, outboxService.payload(ArticleEventType.CREATED, author,
+                        batch.get(i).request().getTitle(), List.of()));
+                insert.setTimestamp(5, now);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static long[] insertBodies(Connection connection, List<PendingArticle> batch) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_BODY, Statement.RETURN_GENERATED_KEYS)) {
+            for (PendingArticle article : batch) {
+                ArticleBody body = ArticleBody.of(article.request().getContent());
+
+                insert.setBytes(1, body.getData());
+                insert.setBoolean(2, body.isCompressed());
+                insert.setInt(3, body.getRawLength());
+                insert.setInt(4, body.getStoredLength());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            return generatedKeys(insert, batch.size());
+        }
+    }
+
+    private static long[] generatedKeys(PreparedStatement insert, int count) throws SQLException {
+        long[] ids = new long[count];
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            for (int i = 0; i < ids.length; i++) {
+                if (!keys.next()) {
+                    throw new SQLException("expected " + ids.length + " generated keys, got " + i);
+                }
+                ids[i] = keys.getLong(1);
+            }
+        }
+        return ids;
+    }
+
+    private record PendingArticle(long line, AddArticleRequest request) {
+    }
+}
@@ -0,0 +1,76 @@
+package me.kkw.springboot_developer.service;
+
+import lombok.RequiredArgsConstructor;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleRevision;
+import me.kkw.springboot_developer.dto.ArticleRevisionResponse;
+import me.kkw.springboot_developer.respository.ArticleRevisionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/*
+* 글 수정 이력을 남기고, 원하는 리비전의 글을 복원한다
+*
+* 델타는 바로 앞 리비전의 본문을 기준으로 만들기 때문에
+* 본문을 바꾸는 모든 경로(BlogService.update, patch)가 수정할 때마다 record()를 불러야 한다.
+* 이력이 없는 글(이 기능 전에 쓴 글)은 처음 수정할 때 수정 전 상태를 1번 리비전으로 먼저 남긴다.
+*
+* 제목만 고친 경우(previousContent가 null)는 본문(LOB)을 풀지 않고 본문이 그대로라는 표시만 남긴다.
+* 첫 리비전이나 스냅샷 차례일 때만 어쩔 수 없이 본문을 읽는다.
+*/
+@RequiredArgsConstructor
+@Service
+public class ArticleRevisionService {
+
+    private final ArticleRevisionRepository articleRevisionRepository;
+
+    // 호출하는 쪽 트랜잭션 안에서 글 수정과 같이 커밋된다, 본문을 고치지 않았으면 previousContent는 null
+    @Transactional
+    public ArticleRevision record(Article article, String previousTitle, String previousContent) {
+        int latest = articleRevisionRepository.findTopByArticleIdOrderByRevisionDesc(article.getId())
+                .map(ArticleRevision::getRevision)
+                .orElse(0);
+
+        boolean contentChanged = previousContent != null;
+
+        if (latest == 0) {
+            articleRevisionRepository.save(ArticleRevision.of(article.getId(), 1, previousTitle, null,
+                    contentChanged ? previousContent : article.getContent()));
+            latest = 1;
+        }
+
+        int revision = latest + 1;
+        if (!contentChanged && !ArticleRevision.isSnapshotRevision(revision)) {
+            return articleRevisionRepository.save(
+                    ArticleRevision.titleOnly(article.getId(), revision, article.getTitle()));
+        }
+        return articleRevisionRepository.save(ArticleRevision.of(article.getId(), revision,
+                article.getTitle(), previousContent, article.getContent()));
+    }
+
+    /*
+    * revision 이하에서 가장 가까운 스냅샷을 읽고 그 뒤의 델타를 차례로 적용한다
+    * 스냅샷이 SNAPSHOT_INTERVAL마다 있으니 읽는 행은 최대 SNAPSHOT_INTERVAL개다
+    * 글이 살아 있는지는 보지 않는다, API에서는 BlogService.findRevision을 거친다
+    */
+    @Transactional(readOnly = true)
+    public ArticleRevisionResponse findRevision(long articleId, int revision) {
+        List<ArticleRevision> chain = revision < 1 ? List.of()
+                : articleRevisionRepository.findByArticleIdAndRevisionBetweenOrderByRevisionAsc(
+                        articleId, ArticleRevision.snapshotBase(revision), revision);
+
+        if (chain.isEmpty() || chain.getLast().getRevision() != revision) {
+            throw new IllegalArgumentException("not found: article " + articleId + " revision " + revision);
+        }
+
+        String content = null;
+        for (ArticleRevision step : chain) {
+            content = step.applyTo(content);
+        }
+
+        ArticleRevision target = chain.getLast();
+        return new ArticleRevisionResponse(articleId, revision, target.getTitle(), content, target.getCreatedAt());
+    }
+}
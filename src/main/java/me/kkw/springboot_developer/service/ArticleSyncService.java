@@ -0,0 +1,73 @@
+package me.kkw.springboot_developer.service;
+
+import lombok.RequiredArgsConstructor;
+import me.kkw.springboot_developer.config.ArticleCompactionProperties;
+import me.kkw.springboot_developer.config.ArticleSyncProperties;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.dto.ArticleChangeResponse;
+import me.kkw.springboot_developer.dto.ArticleChangeToken;
+import me.kkw.springboot_developer.dto.ArticleChangesResponse;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+* 오프라인 클라이언트용 변경 동기화
+*
+* 클라이언트가 마지막으로 받은 워터마크(since) 이후에 만들어지거나 고쳐지거나 삭제된 글만 updated_at 순서로 내려준다.
+* (updated_at, id) 인덱스를 타기 때문에 전체 글 수가 아니라 바뀐 글 수만큼만 읽는다.
+* 삭제된 글도 delete()에서 updated_at이 같이 바뀌니까 tombstone으로 내려간다.
+*
+* updated_at은 커밋 시각이 아니라서, 지금부터 settle-time 안쪽의 변경은 아직 커밋 안 된 더 이른 변경이 남아 있을 수 있다.
+* 그래서 모든 페이지를 settle-time만큼 뒤로 물린 시각(until) 전까지만 읽고, 그 뒤의 변경은 다음 동기화 때 내려준다.
+*
+* 워터마크 규칙
+* - 페이지가 더 있으면 마지막으로 내려준 글의 (updatedAt, id), until보다 앞이라 늦게 커밋된 변경을 건너뛰지 않는다
+* - 마지막 페이지면 until
+* - 어떤 경우에도 받은 since보다 뒤로 가지는 않는다
+*
+* tombstone은 compaction retention이 지나면 지워지기 때문에, 그보다 오래된 since로는 삭제를 다 알려줄 수 없다.
+* 이때는 requiresFullResync()가 true라서 컨트롤러가 410으로 전체 동기화를 요구한다.
+*/
+@RequiredArgsConstructor
+@Service
+public class ArticleSyncService {
+
+    private final BlogRepository blogRepository;
+    private final ArticleSyncProperties syncProperties;
+    private final ArticleCompactionProperties compactionProperties;
+
+    public boolean requiresFullResync(ArticleChangeToken since) {
+        return since != null
+                && since.updatedAt().isBefore(LocalDateTime.now().minus(compactionProperties.getRetention()));
+    }
+
+    @Transactional(readOnly = true)
+    public ArticleChangesResponse findChanges(ArticleChangeToken since, int size) {
+        int pageSize = Math.min(Math.max(size, 1), syncProperties.getMaxPageSize());
+        LocalDateTime until = LocalDateTime.now().minus(syncProperties.getSettleTime());
+
+        // 다음 페이지가 있는지 알려고 하나 더 읽는다
+        List<Article> articles = since == null
+                ? blogRepository.findChangesFirstPage(until, pageSize + 1)
+                : blogRepository.findChangesAfter(since.updatedAt(), since.id(), until, pageSize + 1);
+
+        boolean hasMore = articles.size() > pageSize;
+        List<Article> page = hasMore ? articles.subList(0, pageSize) : articles;
+
+        ArticleChangeToken next = hasMore ? ArticleChangeToken.of(page.getLast()) : settle(since, until);
+        List<ArticleChangeResponse> changes = page.stream().map(ArticleChangeResponse::new).toList();
+
+        return new ArticleChangesResponse(changes, next.encode(), hasMore);
+    }
+
+    // until 전의 변경은 다 내려줬으니 until부터 다시 읽으면 된다
+    private static ArticleChangeToken settle(ArticleChangeToken since, LocalDateTime until) {
+        ArticleChangeToken settled = new ArticleChangeToken(until, 0L);
+
+        return since != null && since.compareTo(settled) > 0 ? since : settled;
+    }
+}
@@ -0,0 +1,93 @@
+package me.kkw.springboot_developer.service;
+
+import lombok.RequiredArgsConstructor;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.Attachment;
+import me.kkw.springboot_developer.respository.AttachmentRepository;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+/*
+* 글 첨부 파일 업로드/조회
+*
+* 파일 내용은 AttachmentStore가 디스크에 저장하고, 여기서는 attachment 행만 만든다.
+* 파일을 먼저 다 받은 다음에 트랜잭션을 열기 때문에 큰 파일을 받는 동안 DB 커넥션을 잡고 있지 않는다.
+*/
+@RequiredArgsConstructor
+@Service
+public class AttachmentService {
+
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentStore attachmentStore;
+    private final BlogService blogService;
+
+    public Attachment upload(long articleId, String fileName, String contentType, InputStream in) {
+        Article article = blogService.findById(articleId);
+        authorizeUploader(article);
+
+        String name = cleanFileName(fileName);
+        String type = parseContentType(contentType);
+        AttachmentStore.StoredFile stored = attachmentStore.store(in);
+
+        return attachmentRepository.save(new Attachment(articleId, name, type, stored.size(), stored.sha256()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Attachment> findByArticle(long articleId) {
+        blogService.findById(articleId);
+        return attachmentRepository.findByArticleIdOrderById(articleId);
+    }
+
+    /*
+    * 첨부 파일 행은 compaction 전까지 남아 있으니 글이 살아 있는지도 확인한다
+    * 삭제된 글의 파일을 내려주면 immutable 캐시 헤더 때문에 캐시에 1년 동안 남는다
+    */
+    @Transactional(readOnly = true)
+    public Attachment findById(long id) {
+        Attachment attachment = attachmentRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("not found attachment: " + id));
+
+        blogService.findById(attachment.getArticleId());
+        return attachment;
+    }
+
+    public Path pathOf(Attachment attachment) {
+        return attachmentStore.pathOf(attachment.getSha256());
+    }
+
+    // 글쓴이만 자기 글에 파일을 붙일 수 있다
+    private static void authorizeUploader(Article article) {
+        String userName = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        if (!article.getAuthor().equals(userName)) {
+            throw new IllegalArgumentException("not authorized");
+        }
+    }
+
+    // 경로는 떼고 파일 이름만 남긴다 (../../etc/passwd -> passwd)
+    private static String cleanFileName(String fileName) {
+        String name = StringUtils.getFilename(StringUtils.cleanPath(fileName == null ? "" : fileName.replace('\\', '/')));
+
+        if (!StringUtils.hasText(name) || name.equals("..")) {
+            throw new IllegalArgumentException("file name is required");
+        }
+        if (name.length() > Attachment.MAX_FILE_NAME_LENGTH) {
+            throw new IllegalArgumentException("file name is too long");
+        }
+        return name;
+    }
+
+    private static String parseContentType(String contentType) {
+        if (!StringUtils.hasText(contentType)) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        return MediaType.parseMediaType(contentType).toString();
+    }
+}
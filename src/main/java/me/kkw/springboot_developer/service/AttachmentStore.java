@@ -0,0 +1,177 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.config.AttachmentProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+* 첨부 파일 내용을 저장하는 로컬 파일 저장소 (content-addressed)
+*
+* 파일 이름이 내용의 SHA-256 해시라서 같은 내용은 한 번만 저장되고, 저장된 파일은 절대 바뀌지 않는다.
+* 한 폴더에 파일이 너무 많아지지 않게 해시 앞 4글자로 두 단계 폴더를 만든다. (ab/cd/abcd...)
+*
+* 업로드는 요청 본문을 8KB 버퍼로 읽으면서 바로 임시 파일에 쓰고 해시를 계산한다.
+* 파일 전체를 힙에 올리지 않기 때문에 파일 크기와 상관없이 메모리 사용량이 같다.
+* 다 쓰고 나면 해시 이름으로 옮기고, 이미 같은 파일이 있으면 임시 파일만 지운다.
+*
+* 아무도 가리키지 않는 파일은 AttachmentSweepService가 유예 시간이 지난 뒤에 지운다.
+* 같은 내용이 다시 올라오면 store()가 파일의 수정 시각을 지금으로 바꿔 두고,
+* 지울 때는 같은 해시의 락을 잡은 채로 수정 시각을 다시 확인해서 방금 올라온 파일을 지우지 않는다.
+*/
+@Component
+public class AttachmentStore {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final long maxSize;
+    // 해시마다 락을 두면 끝이 없어서 해시 값으로 나눠 쓰는 락 묶음
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public AttachmentStore(AttachmentProperties properties) {
+        this.root = Path.of(properties.getStoragePath()).toAbsolutePath().normalize();
+        this.maxSize = properties.getMaxSize().toBytes();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public StoredFile store(InputStream in) {
+        Path temp = null;
+
+        try {
+            Files.createDirectories(root.resolve("tmp"));
+            temp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long size = 0;
+
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new IllegalArgumentException("attachment is larger than " + maxSize + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(sha256);
+            Files.createDirectories(target.getParent());
+
+            synchronized (lockOf(sha256)) {
+                if (Files.exists(target)) {
+                    // 정리 작업이 고아 파일로 보고 지우지 않도록 다시 쓰인 시각을 남긴다
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                } else {
+                    // rename은 원자적이라 다른 요청이 쓰다 만 파일을 읽는 일이 없다
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            return new StoredFile(sha256, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    public Path pathOf(String sha256) {
+        if (sha256.length() != 64 || !sha256.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("invalid sha256: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /*
+    * 저장된 파일 중 cutoff보다 오래된 것의 해시를 돌려준다
+    * 업로드 도중에 남은 임시 파일도 cutoff보다 오래되었으면 여기서 같이 지운다
+    */
+    public List<String> findStoredBefore(Instant cutoff) {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+
+        try (Stream<Path> paths = Files.walk(root, 3)) {
+            List<String> hashes = new ArrayList<>();
+
+            paths.filter(Files::isRegularFile)
+                    .filter(path -> isOlderThan(path, cutoff))
+                    .forEach(path -> {
+                        if (path.getParent().equals(root.resolve("tmp"))) {
+                            deleteQuietly(path);
+                        } else if (path.getFileName().toString().length() == 64) {
+                            hashes.add(path.getFileName().toString());
+                        }
+                    });
+            return hashes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+    * cutoff 이후로 다시 쓰이지 않은 파일만 지운다
+    * store()와 같은 락 안에서 수정 시각을 확인하기 때문에, 그 사이에 같은 내용이 올라왔으면 남겨 둔다
+    */
+    public boolean deleteIfUnusedSince(String sha256, Instant cutoff) {
+        Path path = pathOf(sha256);
+
+        synchronized (lockOf(sha256)) {
+            if (!isOlderThan(path, cutoff)) {
+                return false;
+            }
+            deleteQuietly(path);
+            return true;
+        }
+    }
+
+    private Object lockOf(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static boolean isOlderThan(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            // 이미 지워졌거나 읽을 수 없는 파일은 건드리지 않는다
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // 지우지 못한 파일은 다음 정리 때 다시 시도된다
+        }
+    }
+
+    public record StoredFile(String sha256, long size) {
+    }
+}
@@ -0,0 +1,63 @@
+package me.kkw.springboot_developer.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.kkw.springboot_developer.config.AttachmentProperties;
+import me.kkw.springboot_developer.respository.AttachmentRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+* 아무 글도 가리키지 않는 첨부 파일을 지우는 백그라운드 작업
+*
+* 글을 정리할 때 바로 파일을 지우면, 같은 내용의 파일이 그 사이에 다시 올라와서
+* 저장소에는 "이미 있음"으로 처리되고 행이 커밋되기 전에 파일이 지워질 수 있다.
+* 그래서 파일은 attachment.orphan-grace-period보다 오래 다시 쓰이지 않았고
+* attachment 테이블에도 없는 것만 이 작업이 따로 지운다. (AttachmentStore.deleteIfUnusedSince 참고)
+*
+* 지운 파일 수는 attachment.sweep.files 카운터로 남긴다.
+*/
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class AttachmentSweepService {
+
+    // 한 번에 IN 절로 확인할 해시 개수
+    private static final int CHECK_BATCH_SIZE = 500;
+
+    private final AttachmentStore attachmentStore;
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentProperties attachmentProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(cron = "${attachment.sweep-cron:0 30 4 * * *}")
+    public int sweep() {
+        Instant cutoff = Instant.now().minus(attachmentProperties.getOrphanGracePeriod());
+        List<String> hashes = attachmentStore.findStoredBefore(cutoff);
+        int swept = 0;
+
+        for (int from = 0; from < hashes.size(); from += CHECK_BATCH_SIZE) {
+            List<String> batch = hashes.subList(from, Math.min(from + CHECK_BATCH_SIZE, hashes.size()));
+            Set<String> referenced = new HashSet<>(attachmentRepository.findExistingSha256(batch));
+
+            for (String hash : batch) {
+                if (!referenced.contains(hash) && attachmentStore.deleteIfUnusedSince(hash, cutoff)) {
+                    swept++;
+                }
+            }
+        }
+
+        meterRegistry.counter("attachment.sweep.files").increment(swept);
+
+        if (swept > 0) {
+            log.info("swept {} orphaned attachment files", swept);
+        }
+        return swept;
+    }
+}
@@ -1,15 +1,37 @@
 package me.kkw.springboot_developer.service;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleEventType;
+import me.kkw.springboot_developer.domain.Tag;
 import me.kkw.springboot_developer.dto.AddArticleRequest;
+import me.kkw.springboot_developer.dto.ArticleCursor;
+import me.kkw.springboot_developer.dto.ArticleField;
+import me.kkw.springboot_developer.dto.ArticleMultiGetResponse;
+import me.kkw.springboot_developer.dto.ArticleResponse;
+import me.kkw.springboot_developer.dto.ArticleRevisionResponse;
+import me.kkw.springboot_developer.dto.PatchArticleRequest;
 import me.kkw.springboot_developer.dto.UpdateArticleRequest;
 import me.kkw.springboot_developer.respository.BlogRepository;
+import me.kkw.springboot_developer.respository.TagRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /*
 * 핵심적인 비즈니스 로직 처리 담당
@@ -22,25 +44,157 @@ import java.util.List;
 @RequiredArgsConstructor
 @Service
 public class BlogService {
+    public static final int MAX_FEED_SIZE = 100;
+
     private final BlogRepository blogRepository;
+    private final ArticleRevisionService articleRevisionService;
+    private final TagRepository tagRepository;
+    private final MarkdownRenderer markdownRenderer;
+    private final EntityManagerFactory entityManagerFactory;
+    private final OutboxService outboxService;
+    private final PlatformTransactionManager transactionManager;
 
+    // 새 태그는 글 트랜잭션을 열기 전에 만든다 (createMissingTags 참고)
     public Article save(AddArticleRequest request, String userName) {
-        return blogRepository.save(request.toEntity(userName));
+        Set<String> tagNames = request.getTags() == null ? Set.of() : createMissingTags(request.getTags());
+
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Article article = request.toEntity(userName);
+
+            if (!tagNames.isEmpty()) {
+                article.addTags(tagRepository.findByNameIn(tagNames));
+            }
+            render(article);
+
+            Article savedArticle = blogRepository.save(article);
+            outboxService.append(savedArticle, ArticleEventType.CREATED);
+
+            return savedArticle;
+        });
     }
 
+    /*
+    * 읽기만 하는 메소드는 @Transactional(readOnly = true)
+    * 레플리카가 설정되어 있으면 ReplicationRoutingDataSource가 이 트랜잭션을 읽기 전용 DB로 보낸다
+    * 하이버네이트도 변경 감지용 스냅샷을 만들지 않아서 조금 더 가볍다
+    */
+    @Transactional(readOnly = true)
     public List<Article> findAll() {
         return blogRepository.findAll();
     }
 
+    // tag가 null이면 전체 목록
+    @Transactional(readOnly = true)
+    public List<Article> findAll(String tag) {
+        return tag == null ? findAll() : blogRepository.findAllByTag(Tag.normalize(tag));
+    }
+
+    @Transactional(readOnly = true)
     public Article findById(long id) {
-        return blogRepository.findById(id)
-                .orElseThrow(()->new IllegalArgumentException("not found: " + id));
+        return findActiveArticle(id);
+    }
+
+    /*
+    * 글의 n번째 리비전
+    * 리비전은 compaction이 돌 때까지 남아 있으니, 삭제된 글(tombstone)이면 리비전도 없는 것으로 본다
+    */
+    @Transactional(readOnly = true)
+    public ArticleRevisionResponse findRevision(long id, int revision) {
+        findActiveArticle(id);
+        return articleRevisionService.findRevision(id, revision);
+    }
+
+    /*
+    * 여러 글을 한 번에 조회 (GET /api/articles?ids=)
+    * 2차 캐시에 있는 글은 캐시에서 꺼내고(SQL 없음), 나머지는 findAllById의 IN 쿼리 하나로 읽는다.
+    * 본문과 태그도 @BatchSize 덕분에 글 수와 상관없이 IN 쿼리로 읽힌다.
+    * 없는 글은 예외 대신 missing에 담아서 돌려준다.
+    */
+    @Transactional(readOnly = true)
+    public ArticleMultiGetResponse findAllById(List<Long> ids) {
+        List<Long> requested = ids.stream().distinct().toList();
+        Cache cache = entityManagerFactory.getCache();
+        Map<Long, Article> found = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+
+        for (Long id : requested) {
+            if (cache.contains(Article.class, id)) {
+                blogRepository.findById(id).ifPresent(article -> found.put(id, article));
+            } else {
+                uncached.add(id);
+            }
+        }
+
+        if (!uncached.isEmpty()) {
+            blogRepository.findAllById(uncached).forEach(article -> found.put(article.getId(), article));
+        }
+
+        List<ArticleResponse> articles = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Article article = found.get(id);
+            if (article == null || article.isDeleted()) {
+                missing.add(id);
+            } else {
+                articles.add(new ArticleResponse(article));
+            }
+        }
+        return new ArticleMultiGetResponse(articles, missing);
+    }
+
+    // ?fields=로 고른 필드만 읽는다 (ArticleProjectionRepository 참고)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(Set<ArticleField> fields, String tag) {
+        return blogRepository.findAllProjected(fields, tag == null ? null : Tag.normalize(tag));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> findById(long id, Set<ArticleField> fields) {
+        return blogRepository.findProjectedById(id, fields)
+                .orElseThrow(()-> new IllegalArgumentException("not found: " + id));
+    }
+
+    /*
+    * 작성자별 글 목록 한 페이지를 최신순으로 가져온다
+    * cursor가 null이면 첫 페이지, 아니면 cursor 다음 글부터 가져온다
+    * 다음 페이지가 있는지 알 수 있도록 size보다 하나 더 가져온다 (ArticleFeedResponse 참고)
+    */
+    @Transactional(readOnly = true)
+    public List<Article> findByAuthor(String author, ArticleCursor cursor, int size) {
+        return findByAuthor(author, null, cursor, size);
+    }
+
+    // tag가 있으면 그 태그가 붙은 글만
+    @Transactional(readOnly = true)
+    public List<Article> findByAuthor(String author, String tag, ArticleCursor cursor, int size) {
+        PageRequest limit = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_FEED_SIZE) + 1);
+
+        if (tag != null) {
+            String name = Tag.normalize(tag);
+
+            if (cursor == null) {
+                return blogRepository.findByAuthorAndTagFirstPage(author, name, limit);
+            }
+            return blogRepository.findByAuthorAndTagBefore(author, name, cursor.createdAt(), cursor.id(), limit);
+        }
+
+        if (cursor == null) {
+            return blogRepository.findByAuthorFirstPage(author, limit);
+        }
+        return blogRepository.findByAuthorBefore(author, cursor.createdAt(), cursor.id(), limit);
     }
 
+    /*
+    * 요청 경로에서는 행을 지우지 않고 tombstone만 남긴다 (UPDATE 한 번)
+    * 진짜 DELETE는 딸린 데이터까지 ArticleCompactionService가 한가한 시간에 배치로 처리한다
+    */
+    @Transactional
     public void delete(long id) {
+        Article article = findActiveArticle(id);
 
-        Article article = blogRepository.findById(id)
-                .orElseThrow(()-> new IllegalArgumentException("not found" + id));
+        authorizeArticleAuthor(article);
+        article.delete();
+        outboxService.append(article, ArticleEventType.DELETED);
     }
 
     @Transactional
@@ -59,22 +213,117 @@ public class BlogService {
     * 이게 변경 감지(Dirty Checking)
     * 이 UPDATE 쿼리꺼지 성공적으로 실행되면 트랜잭션이 최종적으로 커밋되고 데이터베이스에 영구적으로 결과가 저장된다.
     * 따라서 명시적으로 repository.save() 이런 코드를 호출하지 않아도 데이터베이스에 엔티티의 변경 상태가 잘 업데이트 된다.
+    *
+    * expectedVersion은 클라이언트가 If-Match로 보낸, 수정하기 전에 읽었던 글의 버전이다. (If-Match: * 이면 null)
+    * 지금 버전과 다르면 그 사이에 누군가 먼저 고친 것이니까 덮어쓰지 않고 예외를 던진다.
+    * 버전을 확인한 뒤 커밋하기 전에 다른 수정이 끼어드는 경우는
+    * @Version 때문에 커밋할 때 같은 종류의 예외(ObjectOptimisticLockingFailureException)가 난다.
     */
-    public Article update(long id, UpdateArticleRequest request) {
-        Article article = blogRepository.findById(id)
-                .orElseThrow(()-> new IllegalArgumentException("not found " + id));
+    public Article update(long id, UpdateArticleRequest request, Long expectedVersion) {
+        Article article = findActiveArticle(id);
 
+        checkVersion(article, expectedVersion);
         authorizeArticleAuthor(article);
+
+        String previousTitle = article.getTitle();
+        String previousContent = article.getContent();
         article.update(request.getTitle(), request.getContent());
+        render(article);
+        flushVersionedUpdate();
+        articleRevisionService.record(article, previousTitle, previousContent);
+        outboxService.append(article, ArticleEventType.UPDATED);
 
         return article;
     }
 
+    /*
+    * 보낸 필드만 고치는 부분 수정
+    * Article에 @DynamicUpdate가 있어서 UPDATE에도 실제로 바뀐 컬럼만 들어간다
+    * 델타가 끊기지 않도록 부분 수정도 update와 똑같이 리비전을 남긴다
+    */
+    @Transactional
+    public Article patch(long id, PatchArticleRequest request, Long expectedVersion) {
+        Article article = findActiveArticle(id);
+
+        checkVersion(article, expectedVersion);
+        authorizeArticleAuthor(article);
+
+        String previousTitle = article.getTitle();
+        // 제목만 고칠 때는 본문(LOB)을 읽어서 풀 필요가 없다
+        String previousContent = request.getContent() != null ? article.getContent() : null;
+        article.patch(request.getTitle(), request.getContent());
+        if (request.getContent() != null) {
+            render(article);
+        }
+        flushVersionedUpdate();
+        articleRevisionService.record(article, previousTitle, previousContent);
+        outboxService.append(article, ArticleEventType.UPDATED);
+
+        return article;
+    }
+
+    // 마크다운은 저장할 때 한 번만 렌더링하고, 화면은 저장된 HTML을 그대로 쓴다 (MarkdownRenderer 참고)
+    private void render(Article article) {
+        article.renderHtml(markdownRenderer.render(article.getContent()), MarkdownRenderer.VERSION);
+    }
+
+    /*
+    * 이미 있는 태그는 한 번의 IN 쿼리로 찾고, 없는 것만 새로 만든다
+    *
+    * 같은 새 태그를 두 요청이 동시에 만들면 한쪽은 tag.name 유니크 제약에 걸린다.
+    * 글을 저장하는 트랜잭션 안에서 그 예외가 나면 트랜잭션 전체가 롤백되니까, 글 트랜잭션을 열기 전에 부른다.
+    * 태그마다 TagRepository.save가 자기 트랜잭션으로 바로 커밋하고, 제약에 걸리면 먼저 만든 쪽 것을 쓴다.
+    * 글 트랜잭션과 겹치지 않아서 요청 하나가 커넥션을 두 개 잡는 일이 없다.
+    * 정규화한 이름을 돌려주면 글 트랜잭션에서 다시 읽어서 붙인다.
+    */
+    private Set<String> createMissingTags(List<String> names) {
+        Set<String> normalized = names.stream()
+                .map(Tag::normalize)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Set<String> missing = new LinkedHashSet<>(normalized);
+        tagRepository.findByNameIn(normalized).forEach(tag -> missing.remove(tag.getName()));
+
+        for (String name : missing) {
+            try {
+                tagRepository.save(new Tag(name));
+            } catch (DataIntegrityViolationException e) {
+                // 다른 요청이 방금 같은 태그를 만들었다
+            }
+        }
+        return normalized;
+    }
+
+    // 2차 캐시에서 꺼낸 엔티티에는 @SQLRestriction이 적용되지 않으니 삭제 여부를 직접 확인한다
+    private Article findActiveArticle(long id) {
+        return blogRepository.findById(id)
+                .filter(article -> !article.isDeleted())
+                .orElseThrow(()-> new IllegalArgumentException("not found: " + id));
+    }
+
+    /*
+    * 리비전 번호(latest + 1)를 정하기 전에 @Version이 붙은 UPDATE를 먼저 DB에 보낸다
+    * 같은 If-Match로 두 요청이 동시에 들어오면 둘 다 checkVersion을 통과하는데,
+    * 여기서 뒤에 온 쪽은 앞 트랜잭션이 끝날 때까지 행 락을 기다렸다가 버전이 달라져서 OptimisticLockingFailureException(412)이 난다.
+    * 플러시하지 않으면 둘 다 같은 리비전 번호를 INSERT 하다가 유니크 제약에 걸려서 500이 된다
+    */
+    private void flushVersionedUpdate() {
+        blogRepository.flush();
+    }
+
+    private static void checkVersion(Article article, Long expectedVersion) {
+        if(expectedVersion != null && !expectedVersion.equals(article.getVersion())) {
+            throw new OptimisticLockingFailureException("article " + article.getId()
+                    + " is at version " + article.getVersion() + ", not " + expectedVersion);
+        }
+    }
+
+    // 글쓴이만 자기 글을 고치거나 지울 수 있다
     public static void authorizeArticleAuthor(Article article) {
         String userName = SecurityContextHolder.getContext().getAuthentication().getName();
 
-        if(!article.getAuthor().equals(userName)) {
-            return;
+        if(!userName.equals(article.getAuthor())) {
+            throw new IllegalArgumentException("not authorized");
         }
     }
 }
@@ -0,0 +1,94 @@
+package me.kkw.springboot_developer.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.Comment;
+import me.kkw.springboot_developer.dto.AddCommentRequest;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import me.kkw.springboot_developer.respository.CommentRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/*
+* 댓글 작성/삭제/조회
+*
+* 댓글을 쓰거나 지울 때 같은 트랜잭션 안에서 Article.commentCount도 같이 고친다.
+* 그래서 글 목록은 글마다 COUNT(*)를 하지 않고 comment_count 컬럼만 읽으면 된다.
+* 개수는 엔티티를 고치지 않고 comment_count + delta 한 문장으로 바꿔서, 따로 락을 잡지 않아도 동시에 달린 댓글 수가 어긋나지 않는다.
+* @Version과 updated_at도 그대로라 글의 ETag가 바뀌지 않는다.
+* 이 UPDATE는 2차 캐시 영역을 건드리지 않게 해 두었으니 (BlogRepository.addCommentCount) 그 글의 캐시 항목만 직접 비운다.
+*/
+@RequiredArgsConstructor
+@Service
+public class CommentService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final CommentRepository commentRepository;
+    private final BlogRepository blogRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Transactional
+    public Comment save(long articleId, AddCommentRequest request, String author) {
+        // 글이 없으면 여기서 끝난다, 개수 UPDATE의 행 락은 트랜잭션이 끝날 때까지 유지된다
+        changeCommentCount(articleId, 1);
+
+        Comment parent = null;
+        if (request.getParentId() != null) {
+            parent = commentRepository.findById(request.getParentId())
+                    .filter(comment -> comment.getArticleId().equals(articleId))
+                    .orElseThrow(() -> new IllegalArgumentException("not found comment: " + request.getParentId()));
+        }
+
+        return commentRepository.save(new Comment(articleId, parent, author, request.getContent()));
+    }
+
+    // 최상위 댓글을 지우면 그 아래 답글도 같이 지운다
+    @Transactional
+    public void delete(long articleId, long commentId) {
+        Comment comment = commentRepository.findById(commentId)
+                .filter(found -> found.getArticleId().equals(articleId))
+                .orElseThrow(() -> new IllegalArgumentException("not found comment: " + commentId));
+
+        authorizeCommentAuthor(comment);
+
+        int deleted = 1;
+        if (comment.getParentId() == null) {
+            deleted += commentRepository.deleteReplies(comment.getId());
+        }
+        commentRepository.delete(comment);
+
+        changeCommentCount(articleId, -deleted);
+    }
+
+    // size보다 하나 더 가져온다 (CommentPageResponse 참고)
+    @Transactional(readOnly = true)
+    public List<Comment> findComments(long articleId, Long cursor, int size) {
+        PageRequest limit = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_PAGE_SIZE) + 1);
+
+        if (cursor == null) {
+            return commentRepository.findFirstPage(articleId, limit);
+        }
+        return commentRepository.findPageAfter(articleId, cursor, limit);
+    }
+
+    private void changeCommentCount(long articleId, int delta) {
+        if (blogRepository.addCommentCount(articleId, delta) == 0) {
+            throw new IllegalArgumentException("not found: " + articleId);
+        }
+        entityManagerFactory.getCache().evict(Article.class, articleId);
+    }
+
+    private static void authorizeCommentAuthor(Comment comment) {
+        String userName = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        if (!comment.getAuthor().equals(userName)) {
+            throw new IllegalArgumentException("not authorized");
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package me.kkw.springboot_developer.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.kkw.springboot_developer.config.SnapshotProperties;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/*
+* 인메모리 H2를 재시작해도 데이터가 남도록 테이블을 바이너리 파일로 내보내고 다시 읽어 들인다
+*
+* 파일 형식 (모든 숫자는 빅엔디안)
+*   MAGIC(8) VERSION(int) 테이블 수(int)
+*   테이블마다: 이름, 컬럼 수(int), 컬럼마다 (이름, 타입 코드(byte)), 행들, 끝 표시(byte 0)
+*   행마다: 행 표시(byte 1), 컬럼마다 (null이면 0, 아니면 1과 값)
+*   마지막 8바이트: 앞부분 전체의 CRC32C
+* 문자열과 바이트 배열은 길이(int) + 바이트로 쓴다.
+*
+* 복원은 파일을 메모리 매핑해서 체크섬부터 확인하고, 바로 그 버퍼에서 값을 읽어
+* 한 커넥션, 한 트랜잭션 안에서 batch-size개씩 배치 INSERT 한다.
+* data.sql처럼 SQL 문장을 한 줄씩 파싱해서 실행하지 않아서 행이 많아도 빠르다.
+* 복원한 뒤에는 IDENTITY 컬럼이 기존 id 다음부터 발급되도록 다시 맞추고 2차 캐시를 비운다.
+*
+* 메모리 매핑 한 번으로 읽기 때문에 스냅샷 파일은 2GB를 넘을 수 없다.
+*/
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class DatabaseSnapshotService {
+
+    private static final byte[] MAGIC = "BLOGSNAP".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+
+    private static final byte LONG = 1;
+    private static final byte INT = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte STRING = 4;
+    private static final byte TIMESTAMP = 5;
+    private static final byte BYTES = 6;
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SnapshotProperties snapshotProperties;
+
+    // 임시 파일에 다 쓴 다음 이름을 바꿔서, 쓰다가 죽어도 이전 스냅샷은 멀쩡하다
+    public long export(Path path) {
+        long start = System.nanoTime();
+        long rows = 0;
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try (OutputStream file = Files.newOutputStream(temp);
+             Connection connection = dataSource.getConnection()) {
+            CheckedOutputStream checked = new CheckedOutputStream(file, new CRC32C());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16));
+
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(snapshotProperties.getTables().size());
+            for (String table : snapshotProperties.getTables()) {
+                rows += exportTable(connection, table, out);
+            }
+            out.flush();
+
+            new DataOutputStream(file).writeLong(checked.getChecksum().getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("snapshot export failed", e);
+        }
+
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("exported {} rows to {} in {} ms", rows, path, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    public long restore(Path path) {
+        long start = System.nanoTime();
+        long rows = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < MAGIC.length + 16 || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("invalid snapshot size: " + size);
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer in = mapped.slice(0, (int) size - Long.BYTES);
+
+            CRC32C crc = new CRC32C();
+            crc.update(in.duplicate());
+            if (crc.getValue() != mapped.getLong((int) size - Long.BYTES)) {
+                throw new IllegalStateException("snapshot checksum mismatch: " + path);
+            }
+
+            byte[] magic = new byte[MAGIC.length];
+            in.get(magic);
+            int version = in.getInt();
+            if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+                throw new IllegalStateException("not a snapshot file: " + path);
+            }
+
+            try (Connection connection = dataSource.getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    clearTables(connection);
+
+                    int tables = in.getInt();
+                    for (int i = 0; i < tables; i++) {
+                        rows += restoreTable(connection, in);
+                    }
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("snapshot restore failed", e);
+        }
+
+        entityManagerFactory.getCache().evictAll();
+
+        log.info("restored {} rows from {} in {} ms", rows, path, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private long exportTable(Connection connection, String table, DataOutputStream out)
+            throws SQLException, IOException {
+        long rows = 0;
+
+        try (Statement statement = connection.createStatement()) {
+            statement.setFetchSize(snapshotProperties.getBatchSize());
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT * FROM " + table)) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columns = metaData.getColumnCount();
+                byte[] types = new byte[columns];
+
+                writeString(out, table);
+                out.writeInt(columns);
+                for (int c = 0; c < columns; c++) {
+                    types[c] = typeOf(table, metaData, c + 1);
+                    writeString(out, metaData.getColumnName(c + 1));
+                    out.writeByte(types[c]);
+                }
+
+                while (resultSet.next()) {
+                    out.writeByte(1);
+                    for (int c = 0; c < columns; c++) {
+                        writeValue(out, resultSet, c + 1, types[c]);
+                    }
+                    rows++;
+                }
+                out.writeByte(0);
+            }
+        }
+        return rows;
+    }
+
+    private long restoreTable(Connection connection, ByteBuffer in) throws SQLException {
+        String table = readString(in);
+        int columns = in.getInt();
+        List<String> names = new ArrayList<>(columns);
+        byte[] types = new byte[columns];
+
+        for (int c = 0; c < columns; c++) {
+            names.add(readString(in));
+            types[c] = in.get();
+        }
+
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", names) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+
+        long rows = 0;
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            while (in.get() == 1) {
+                for (int c = 0; c < columns; c++) {
+                    readValue(in, insert, c + 1, types[c]);
+                }
+                insert.addBatch();
+
+                if (++rows % snapshotProperties.getBatchSize() == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        restartIdentity(connection, table);
+        return rows;
+    }
+
+    // 외래키 때문에 복원 순서의 반대로 지운다 (data.sql로 넣은 예제 데이터도 여기서 지워진다)
+    private void clearTables(Connection connection) throws SQLException {
+        List<String> tables = snapshotProperties.getTables();
+
+        try (Statement statement = connection.createStatement()) {
+            for (int i = tables.size() - 1; i >= 0; i--) {
+                statement.executeUpdate("DELETE FROM " + tables.get(i));
+            }
+        }
+    }
+
+    private static void restartIdentity(Connection connection, String table) throws SQLException {
+        try (PreparedStatement identity = connection.prepareStatement(
+                "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = ? AND IS_IDENTITY = 'YES'")) {
+            identity.setString(1, table.toUpperCase());
+
+            try (ResultSet resultSet = identity.executeQuery()) {
+                if (!resultSet.next()) {
+                    return;
+                }
+                String column = resultSet.getString(1);
+
+                try (Statement statement = connection.createStatement();
+                     ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table)) {
+                    max.next();
+                    statement.executeUpdate("ALTER TABLE " + table + " ALTER COLUMN " + column
+                            + " RESTART WITH " + (max.getLong(1) + 1));
+                }
+            }
+        }
+    }
+
+    private static byte typeOf(String table, ResultSetMetaData metaData, int column) throws SQLException {
+        return switch (metaData.getColumnType(column)) {
+            case Types.BIGINT -> LONG;
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> INT;
+            case Types.BOOLEAN, Types.BIT -> BOOLEAN;
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.CLOB -> STRING;
+            // H2의 ENUM 컬럼은 OTHER로 보이지만 문자열로 읽고 쓸 수 있다
+            case Types.OTHER -> {
+                if (!"ENUM".equalsIgnoreCase(metaData.getColumnTypeName(column))) {
+                    throw new IllegalStateException("unsupported column type "
+                            + metaData.getColumnTypeName(column) + " in " + table + "." + metaData.getColumnName(column));
+                }
+                yield STRING;
+            }
+            case Types.TIMESTAMP -> TIMESTAMP;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> BYTES;
+            default -> throw new IllegalStateException("unsupported column type "
+                    + metaData.getColumnTypeName(column) + " in " + table + "." + metaData.getColumnName(column));
+        };
+    }
+
+    private static void writeValue(DataOutputStream out, ResultSet resultSet, int column, byte type)
+            throws SQLException, IOException {
+        Object value = switch (type) {
+            case LONG -> resultSet.getLong(column);
+            case INT -> resultSet.getInt(column);
+            case BOOLEAN -> resultSet.getBoolean(column);
+            case STRING -> resultSet.getString(column);
+            case TIMESTAMP -> resultSet.getObject(column, LocalDateTime.class);
+            default -> resultSet.getBytes(column);
+        };
+
+        if (resultSet.wasNull() || value == null) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(1);
+
+        switch (type) {
+            case LONG -> out.writeLong((Long) value);
+            case INT -> out.writeInt((Integer) value);
+            case BOOLEAN -> out.writeBoolean((Boolean) value);
+            case STRING -> writeString(out, (String) value);
+            case TIMESTAMP -> {
+                LocalDateTime timestamp = (LocalDateTime) value;
+                out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(timestamp.getNano());
+            }
+            default -> {
+                byte[] bytes = (byte[]) value;
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void readValue(ByteBuffer in, PreparedStatement insert, int column, byte type)
+            throws SQLException {
+        if (in.get() == 0) {
+            insert.setNull(column, switch (type) {
+                case LONG -> Types.BIGINT;
+                case INT -> Types.INTEGER;
+                case BOOLEAN -> Types.BOOLEAN;
+                case STRING -> Types.VARCHAR;
+                case TIMESTAMP -> Types.TIMESTAMP;
+                default -> Types.VARBINARY;
+            });
+            return;
+        }
+
+        switch (type) {
+            case LONG -> insert.setLong(column, in.getLong());
+            case INT -> insert.setInt(column, in.getInt());
+            case BOOLEAN -> insert.setBoolean(column, in.get() != 0);
+            case STRING -> insert.setString(column, readString(in));
+            case TIMESTAMP -> insert.setObject(column,
+                    LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC));
+            default -> {
+                byte[] bytes = new byte[in.getInt()];
+                in.get(bytes);
+                insert.setBytes(column, bytes);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        String value = StandardCharsets.UTF_8.decode(in.slice(in.position(), length)).toString();
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,56 @@
+package me.kkw.springboot_developer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.kkw.springboot_developer.config.OutboxRelayProperties;
+import me.kkw.springboot_developer.dto.ArticleChangedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/*
+* 이벤트를 파일에 한 줄씩(NDJSON) 덧붙이는 싱크, outbox.relay.file-path가 있을 때만 등록된다
+* 다른 프로세스(로그 수집기, 배치 작업)가 파일을 따라 읽는 용도
+* 배치 하나를 한 번의 write로 쓰고 force로 디스크까지 내린 뒤에 성공으로 본다
+*/
+@ConditionalOnProperty(prefix = "outbox.relay", name = "file-path")
+@Component
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(OutboxRelayProperties properties, ObjectMapper objectMapper) {
+        this.path = Path.of(properties.getFilePath());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<ArticleChangedEvent> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 128);
+        for (ArticleChangedEvent event : events) {
+            objectMapper.writeValue(lines, event);
+            lines.write('\n');
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package me.kkw.springboot_developer.service;
+
+import org.commonmark.node.Link;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.stereotype.Component;
+
+/*
+* 글 본문(마크다운)을 HTML로 바꾼다
+*
+* 요청마다 렌더링하지 않고 글을 저장/수정할 때 한 번만 렌더링해서 ArticleBody에 같이 저장한다.
+* 화면(article.html)은 저장된 HTML을 그대로 출력하기 때문에 여기서 안전한 HTML만 만들어야 한다.
+* - escapeHtml: 본문에 직접 쓴 HTML 태그는 실행되지 않게 글자로 바꾼다 (<script> 등)
+* - sanitizeUrls: 링크/이미지 주소는 http, https, mailto, data만 허용한다 (javascript: 등 제거)
+* - 링크에는 rel="nofollow noopener noreferrer"를 붙인다
+*
+* 렌더러 설정이나 라이브러리 버전을 바꿔서 결과 HTML이 달라지면 VERSION을 올린다.
+* MarkdownRerenderService가 예전 버전으로 렌더링된 본문을 백그라운드에서 다시 렌더링한다.
+*
+* Parser와 HtmlRenderer는 스레드 안전해서 하나씩만 만들어 두고 같이 쓴다.
+*/
+@Component
+public class MarkdownRenderer {
+
+    public static final int VERSION = 1;
+
+    private final Parser parser = Parser.builder().build();
+    private final HtmlRenderer renderer = HtmlRenderer.builder()
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+                if (node instanceof Link) {
+                    attributes.put("rel", "nofollow noopener noreferrer");
+                }
+            })
+            .build();
+
+    public String render(String markdown) {
+        return renderer.render(parser.parse(markdown));
+    }
+}
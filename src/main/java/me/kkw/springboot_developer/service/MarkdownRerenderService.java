@@ -0,0 +1,81 @@
+package me.kkw.springboot_developer.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.kkw.springboot_developer.config.MarkdownRerenderProperties;
+import me.kkw.springboot_developer.domain.ArticleBody;
+import me.kkw.springboot_developer.respository.ArticleBodyRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+* 렌더링된 HTML이 없거나 예전 렌더러 버전으로 만들어진 본문을 다시 렌더링하는 백그라운드 작업
+*
+* MarkdownRenderer.VERSION을 올리고 배포하면 이 작업이 batch-size개씩 다시 렌더링한다.
+* data.sql이나 NDJSON 가져오기처럼 BlogService를 거치지 않고 들어온 본문도 여기서 렌더링된다.
+* 배치마다 커밋하기 때문에 중간에 멈춰도 다음 실행에서 남은 것부터 이어서 한다.
+* 다시 렌더링한 본문 수는 article.markdown.rerender.rows 카운터로 남긴다.
+*
+* 한 행이 실패했다고 배치 전체가 롤백되면 매번 같은 행에서 멈추니까, 실패는 행마다 잡아서 로그를 남기고
+* 그 행은 실패로 표시(ArticleBody.markRenderFailed)한 뒤 나머지를 계속 렌더링한다.
+* 실패한 본문 수는 article.markdown.rerender.failed 카운터로 남긴다.
+*/
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class MarkdownRerenderService {
+
+    private final ArticleBodyRepository articleBodyRepository;
+    private final MarkdownRenderer markdownRenderer;
+    private final MarkdownRerenderProperties rerenderProperties;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${article.markdown.rerender.fixed-delay:60000}")
+    public int rerender() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        PageRequest limit = PageRequest.of(0, rerenderProperties.getBatchSize());
+        int rendered = 0;
+        int failed = 0;
+
+        for (int batch = 0; batch < rerenderProperties.getMaxBatchesPerRun(); batch++) {
+            List<Long> ids = articleBodyRepository.findStaleRenderIds(MarkdownRenderer.VERSION, limit);
+
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer batchFailed = transaction.execute(status -> {
+                int failures = 0;
+                for (ArticleBody body : articleBodyRepository.findAllById(ids)) {
+                    try {
+                        body.updateHtml(markdownRenderer.render(body.getContent()), MarkdownRenderer.VERSION);
+                    } catch (RuntimeException e) {
+                        log.warn("failed to render article body {}, skipping until the renderer version changes",
+                                body.getId(), e);
+                        body.markRenderFailed(MarkdownRenderer.VERSION);
+                        failures++;
+                    }
+                }
+                return failures;
+            });
+            int batchFailures = batchFailed == null ? 0 : batchFailed;
+            failed += batchFailures;
+            rendered += ids.size() - batchFailures;
+        }
+
+        meterRegistry.counter("article.markdown.rerender.rows").increment(rendered);
+        meterRegistry.counter("article.markdown.rerender.failed").increment(failed);
+
+        if (rendered > 0) {
+            log.info("re-rendered {} article bodies with markdown renderer v{}", rendered, MarkdownRenderer.VERSION);
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,151 @@
+package me.kkw.springboot_developer.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import me.kkw.springboot_developer.config.OutboxRelayProperties;
+import me.kkw.springboot_developer.domain.OutboxEvent;
+import me.kkw.springboot_developer.dto.ArticleChangedEvent;
+import me.kkw.springboot_developer.respository.OutboxEventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/*
+* 아웃박스 이벤트를 싱크(OutboxSink)로 전달하는 백그라운드 작업
+*
+* 배치마다 세 단계로 나눈다.
+* 1. 짧은 트랜잭션에서 SELECT ... FOR UPDATE SKIP LOCKED로 이벤트를 잠그고 claimed_until(lease)을 채운 뒤 바로 커밋
+* 2. 트랜잭션 밖에서 모든 싱크에 전달, 이 동안 DB 락도 커넥션도 잡고 있지 않다
+* 3. 전달에 성공한 이벤트를 지우는 짧은 트랜잭션
+* 글을 쓰는 트랜잭션과는 잠그는 행이 겹치지 않아서 쓰기 요청을 느리게 만들지 않는다.
+* 전달에 실패하면 그 배치의 lease를 바로 풀어서 다음 실행이 같은 이벤트부터 다시 보낸다.
+*
+* 글 하나의 이벤트는 쌓인 순서대로만 전달한다. (UPDATED보다 DELETED가 먼저 가면 소비하는 쪽이 되돌릴 수 없다)
+* 그래서 같은 글에 아직 전달되지 않은 더 오래된 이벤트가 있는데 그게 이번에 잠근 행에 없으면
+* (다른 릴레이가 잠갔거나 가져가서 전달 중이면) 그 글의 이벤트는 이번에 가져가지 않는다.
+*
+* 밀린 이벤트가 있으면 batch-size개씩 max-batches-per-run번까지 쉬지 않고 보내서 처리량을 올리고,
+* 없으면 fixed-delay마다 한 번 확인만 한다.
+* 전달한 수는 outbox.events.published, 실패한 배치는 outbox.batches.failed 카운터로 남긴다.
+*
+* outbox.relay.enabled=false면 빈을 만들지 않아서 스케줄러도 돌지 않는다. (테스트는 꺼 둔다)
+*/
+@Slf4j
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Service
+public class OutboxRelayService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final OutboxRelayProperties relayProperties;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+    // 어느 노드가 가져갔는지 남기는 값, 노드(인스턴스)마다 다르다
+    private final String relayId = UUID.randomUUID().toString();
+
+    public OutboxRelayService(OutboxEventRepository outboxEventRepository,
+                              List<OutboxSink> sinks,
+                              OutboxRelayProperties relayProperties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.relayProperties = relayProperties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.fixed-delay:200}")
+    public int relay() {
+        int batchSize = Math.max(1, relayProperties.getBatchSize());
+        int relayed = 0;
+
+        for (int batch = 0; batch < relayProperties.getMaxBatchesPerRun(); batch++) {
+            List<OutboxEvent> events = transaction.execute(status -> claim(batchSize));
+
+            if (events == null || events.isEmpty()) {
+                break;
+            }
+
+            List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+            List<ArticleChangedEvent> messages = events.stream().map(ArticleChangedEvent::of).toList();
+
+            try {
+                for (OutboxSink sink : sinks) {
+                    sink.publish(messages);
+                }
+            } catch (Exception e) {
+                meterRegistry.counter("outbox.batches.failed").increment();
+                log.warn("failed to relay {} outbox events, retrying on the next run", ids.size(), e);
+                transaction.executeWithoutResult(status -> outboxEventRepository.release(ids));
+                break;
+            }
+
+            transaction.executeWithoutResult(status -> outboxEventRepository.deleteByIds(ids));
+            relayed += ids.size();
+
+            if (events.size() < batchSize) {
+                break;
+            }
+        }
+
+        meterRegistry.counter("outbox.events.published").increment(relayed);
+        return relayed;
+    }
+
+    private List<OutboxEvent> claim(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> locked = outboxEventRepository.lockClaimableIds(now, batchSize);
+
+        if (locked.isEmpty()) {
+            return List.of();
+        }
+
+        List<OutboxEvent> events = inAggregateOrder(outboxEventRepository.findByIdInOrderById(locked));
+        if (events.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+        outboxEventRepository.claim(ids, relayId, now.plus(relayProperties.getLease()));
+        return events;
+    }
+
+    /*
+    * 글마다 아직 남아 있는 이벤트를 오래된 순서로 보면서, 잠근 이벤트가 끊김 없이 이어지는 앞부분만 남긴다
+    * 중간에 잠그지 못한 이벤트가 나오면 그 글의 나머지는 다음에 보낸다
+    */
+    private List<OutboxEvent> inAggregateOrder(List<OutboxEvent> locked) {
+        Set<Long> lockedIds = locked.stream().map(OutboxEvent::getId).collect(Collectors.toSet());
+        Set<Long> aggregateIds = locked.stream().map(OutboxEvent::getAggregateId).collect(Collectors.toSet());
+        List<Object[]> pending = outboxEventRepository.findPendingIds(
+                OutboxService.ARTICLE_AGGREGATE, aggregateIds, locked.getLast().getId());
+
+        Set<Long> blocked = new HashSet<>();
+        Set<Long> deliverable = new HashSet<>();
+        for (Object[] row : pending) {
+            Long id = (Long) row[0];
+            Long aggregateId = (Long) row[1];
+
+            if (blocked.contains(aggregateId)) {
+                continue;
+            }
+            if (lockedIds.contains(id)) {
+                deliverable.add(id);
+            } else {
+                blocked.add(aggregateId);
+            }
+        }
+
+        return locked.stream().filter(event -> deliverable.contains(event.getId())).toList();
+    }
+}
@@ -0,0 +1,57 @@
+package me.kkw.springboot_developer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleEventType;
+import me.kkw.springboot_developer.domain.OutboxEvent;
+import me.kkw.springboot_developer.respository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+* 글 변경 이벤트를 아웃박스에 쌓는다
+* 반드시 글을 바꾸는 트랜잭션 안에서 불러야 해서 MANDATORY, 트랜잭션 밖에서 부르면 예외가 난다
+* 쓰기 트랜잭션에는 작은 INSERT 하나만 더해지고, 전달은 OutboxRelayService가 따로 한다
+*/
+@RequiredArgsConstructor
+@Service
+public class OutboxService {
+
+    public static final String ARTICLE_AGGREGATE = "article";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Article article, ArticleEventType type) {
+        String payload = payload(type, article.getAuthor(), article.getTitle(), article.getTagNames());
+
+        // 글 UPDATE를 먼저 보내서 이번 변경으로 올라간 버전을 이벤트 순서 번호로 쓴다
+        outboxEventRepository.flush();
+        outboxEventRepository.save(new OutboxEvent(ARTICLE_AGGREGATE, article.getId(), article.getVersion(),
+                type, payload));
+    }
+
+    // JPA를 거치지 않고 outbox_event에 직접 쓰는 곳(ArticleImportService)도 같은 모양의 payload를 만든다
+    public String payload(ArticleEventType type, String author, String title, List<String> tags) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("author", author);
+        if (type != ArticleEventType.DELETED) {
+            payload.put("title", title);
+            payload.put("tags", tags);
+        }
+
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.dto.ArticleChangedEvent;
+
+import java.util.List;
+
+/*
+* 아웃박스 이벤트를 받아 가는 곳
+* 빈으로 등록된 싱크 전부에 같은 배치가 순서대로 전달된다 (OutboxRelayService)
+* 예외를 던지면 배치 전체가 lease가 끝난 뒤 다시 전달되니까, 이미 받은 이벤트가 다시 올 수 있다
+*/
+public interface OutboxSink {
+
+    void publish(List<ArticleChangedEvent> events) throws Exception;
+}
@@ -0,0 +1,71 @@
+package me.kkw.springboot_developer.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.kkw.springboot_developer.config.RefreshTokenPurgeProperties;
+import me.kkw.springboot_developer.respository.RefreshTokenRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+* 만료되었거나 주인이 없어진 리프레시 토큰을 백그라운드에서 지우는 작업
+*
+* refresh_token 테이블은 지우는 곳이 없어서 계속 커지기만 했다.
+* 한 번의 DELETE로 전부 지우면 테이블 전체에 긴 락이 걸리니까
+* 기본키 순서로 batch-size개씩 id를 읽고(keyset), 그 배치의 첫 id부터 마지막 id까지의 범위에서 지운다.
+* 다음 배치는 마지막 id 다음부터라서, id 사이에 큰 빈 구간이 있어도 빈 범위를 하나씩 훑지 않는다.
+* 범위마다 트랜잭션이 따로 커밋되기 때문에 /api/token 요청이 오래 기다리지 않는다.
+*
+* 지운 행 수는 refresh_token.purge.rows 카운터,
+* 걸린 시간은 refresh_token.purge.duration 타이머로 남긴다.
+*/
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class RefreshTokenPurgeService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenPurgeProperties purgeProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${refresh-token.purge.fixed-delay:600000}",
+            initialDelayString = "${refresh-token.purge.fixed-delay:600000}")
+    public int purge() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int purged = 0;
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            PageRequest batch = PageRequest.of(0, Math.max(1, purgeProperties.getBatchSize()));
+            long fromId = Long.MIN_VALUE;
+
+            while (true) {
+                List<Long> ids = refreshTokenRepository.findIdsFrom(fromId, batch);
+                if (ids.isEmpty()) {
+                    return purged;
+                }
+
+                long lastId = ids.getLast();
+                purged += refreshTokenRepository.deleteExpiredOrOrphanedInRange(ids.getFirst(), lastId + 1, now);
+
+                if (ids.size() < batch.getPageSize()) {
+                    return purged;
+                }
+                fromId = lastId + 1;
+            }
+        } finally {
+            meterRegistry.counter("refresh_token.purge.rows").increment(purged);
+            sample.stop(meterRegistry.timer("refresh_token.purge.duration"));
+
+            if (purged > 0) {
+                log.info("purged {} refresh tokens", purged);
+            }
+        }
+    }
+}
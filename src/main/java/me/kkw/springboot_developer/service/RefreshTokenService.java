@@ -6,6 +6,8 @@ import me.kkw.springboot_developer.domain.RefreshToken;
 import me.kkw.springboot_developer.respository.RefreshTokenRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 @RequiredArgsConstructor
 @Service
 public class RefreshTokenService {
@@ -14,6 +16,7 @@ public class RefreshTokenService {
     public RefreshToken findByRefreshToken(String refreshToken) {
         return refreshTokenRepository
                 .findByRefreshToken(refreshToken)
+                .filter(token -> !token.isExpired(LocalDateTime.now()))
                 .orElseThrow(()-> new IllegalArgumentException("Unexpected token"));
     }
 }
@@ -0,0 +1,118 @@
+package me.kkw.springboot_developer.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+* Space-Saving 알고리즘으로 가장 많이 나온 id를 세는 스케치 (TrendingService에서 사용)
+*
+* capacity개의 카운터만 들고 있다. 처음 보는 id가 왔는데 자리가 없으면
+* 가장 작은 카운터를 빼앗아서 (그 값 + 1)부터 센다. 빼앗긴 값은 error로 남는다.
+* 실제로 capacity분의 1보다 많이 나온 id는 절대 빠지지 않고,
+* 세어진 값은 실제 값보다 작지 않으며 error보다 많이 크지도 않다.
+*
+* 가장 작은 카운터를 바로 찾도록 카운터를 배열 기반 최소 힙으로 두고
+* id -> 힙 위치를 맵으로 들고 있어서 offer()는 O(log capacity)다.
+* 메모리는 capacity에 비례하고 얼마나 많은 id가 들어와도 늘지 않는다.
+*/
+public class SpaceSavingSketch {
+
+    private final long[] ids;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<Long, Integer> positions;
+    private int size;
+
+    public SpaceSavingSketch(int capacity) {
+        this.ids = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public synchronized void offer(long id) {
+        Integer position = positions.get(id);
+
+        if (position != null) {
+            counts[position]++;
+            siftDown(position);
+            return;
+        }
+
+        if (size < ids.length) {
+            ids[size] = id;
+            counts[size] = 1;
+            errors[size] = 0;
+            positions.put(id, size);
+            siftUp(size++);
+            return;
+        }
+
+        // 가장 작은 카운터(힙의 루트)를 새 id에게 넘긴다
+        positions.remove(ids[0]);
+        ids[0] = id;
+        errors[0] = counts[0];
+        counts[0]++;
+        positions.put(id, 0);
+        siftDown(0);
+    }
+
+    // 지금 들고 있는 (id, 추정 횟수)를 consumer에 넘긴다, 락을 잡는 동안만 읽는다
+    public synchronized void forEach(CounterConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(ids[i], counts[i], errors[i]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface CounterConsumer {
+        void accept(long id, long count, long error);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int left = position * 2 + 1;
+            int right = left + 1;
+            int smallest = position;
+
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        long count = counts[a];
+        long error = errors[a];
+
+        ids[a] = ids[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        ids[b] = id;
+        counts[b] = count;
+        errors[b] = error;
+
+        positions.put(ids[a], a);
+        positions.put(ids[b], b);
+    }
+}
@@ -0,0 +1,137 @@
+package me.kkw.springboot_developer.service;
+
+import jakarta.annotation.PostConstruct;
+import me.kkw.springboot_developer.config.jwt.JwtProperties;
+import me.kkw.springboot_developer.config.jwt.RevocationBloomFilter;
+import me.kkw.springboot_developer.domain.RevokedToken;
+import me.kkw.springboot_developer.respository.RevokedTokenRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+* 액세스 토큰 폐기 여부를 확인하는 서비스
+*
+* 요청마다 DB를 확인하면 JWT를 쓰는 의미가 없어지니까 메모리의 블룸 필터를 먼저 본다.
+* 필터는 토큰의 만료 시각(exp)을 window 크기의 구간(bucket)으로 나눠서 구간마다 하나씩 둔다.
+* 구간이 지나면 그 구간의 토큰은 전부 만료된 것이므로 필터도 통째로 버릴 수 있다 (rotation).
+* 필터들은 bucket % slots 위치의 링에 담기고, 슬롯이 다음 바퀴의 구간에 재사용될 때 교체된다.
+*
+* - 필터에 없으면: 폐기되지 않은 토큰, DB를 보지 않고 바로 통과 (객체 할당 없음)
+* - 필터에 있으면: 오탐일 수 있으니 revoked_token 테이블을 정확하게 확인
+* - 만료 시각이 링이 덮는 범위보다 멀면: 필터 없이 테이블로 바로 확인
+*
+* 다른 인스턴스에서 폐기한 토큰은 sync()가 주기적으로 테이블에서 읽어 필터에 추가한다.
+*/
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtProperties.Revocation properties;
+    private final long windowMillis;
+    private final AtomicReferenceArray<Generation> ring;
+
+    private LocalDateTime lastSyncedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, JwtProperties jwtProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.properties = jwtProperties.getRevocation();
+        this.windowMillis = properties.getWindow().toMillis();
+
+        long lifetimeMillis = properties.getMaxTokenLifetime().toMillis();
+        this.ring = new AtomicReferenceArray<>((int) ((lifetimeMillis + windowMillis - 1) / windowMillis) + 2);
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        sync();
+    }
+
+    public void revoke(String jti, long expiresAtMillis) {
+        revokedTokenRepository.save(new RevokedToken(jti, toLocalDateTime(expiresAtMillis)));
+        addToFilter(jti, expiresAtMillis);
+    }
+
+    public boolean isRevoked(String jti, long expiresAtMillis) {
+        long bucket = expiresAtMillis / windowMillis;
+        long currentBucket = System.currentTimeMillis() / windowMillis;
+
+        if (bucket >= currentBucket + ring.length()) {
+            return revokedTokenRepository.existsById(jti);
+        }
+
+        Generation generation = ring.get(slotOf(bucket));
+
+        if (generation == null || generation.bucket() != bucket || !generation.filter().mightContain(jti)) {
+            return false;
+        }
+
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /*
+    * 마지막 동기화 이후 테이블에 추가된 폐기 기록을 필터에 반영하고,
+    * 이미 만료된 폐기 기록은 테이블에서 지운다.
+    */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:60000}",
+            initialDelayString = "${jwt.revocation.sync-interval:60000}")
+    public synchronized void sync() {
+        LocalDateTime now = LocalDateTime.now();
+
+        for (RevokedToken revokedToken : revokedTokenRepository
+                .findByRevokedAtAfterAndExpiresAtAfter(lastSyncedAt, now)) {
+            addToFilter(revokedToken.getJti(), toEpochMillis(revokedToken.getExpiresAt()));
+        }
+
+        lastSyncedAt = now.minusSeconds(1);
+        revokedTokenRepository.deleteExpired(now);
+    }
+
+    private void addToFilter(String jti, long expiresAtMillis) {
+        long bucket = expiresAtMillis / windowMillis;
+        long currentBucket = System.currentTimeMillis() / windowMillis;
+
+        // 이미 만료됐거나 링이 덮는 범위 밖이면 테이블 기록만으로 충분하다
+        if (bucket < currentBucket || bucket >= currentBucket + ring.length()) {
+            return;
+        }
+
+        int slot = slotOf(bucket);
+
+        while (true) {
+            Generation generation = ring.get(slot);
+
+            if (generation != null && generation.bucket() == bucket) {
+                generation.filter().put(jti);
+                return;
+            }
+
+            Generation rotated = new Generation(bucket, new RevocationBloomFilter(
+                    properties.getExpectedInsertions(), properties.getFalsePositiveRate()));
+
+            if (ring.compareAndSet(slot, generation, rotated)) {
+                rotated.filter().put(jti);
+                return;
+            }
+        }
+    }
+
+    private int slotOf(long bucket) {
+        return (int) Math.floorMod(bucket, (long) ring.length());
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Generation(long bucket, RevocationBloomFilter filter) {
+    }
+}
@@ -13,6 +13,7 @@ public class TokenService {
     private final TokenProvider tokenProvider;
     private final RefreshTokenService refreshTokenService;
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
 
     public String createNewAccessToken(String refreshToken){
         if(!tokenProvider.validToken(refreshToken)) {
@@ -24,4 +25,23 @@ public class TokenService {
 
         return tokenProvider.generateToken(user, Duration.ofHours(2));
     }
+
+    /*
+    * 아직 만료되지 않은 액세스 토큰을 폐기한다
+    * 유효하지 않거나 jti가 없는 (폐기할 수 없는) 토큰이면 false
+    */
+    public boolean revokeAccessToken(String accessToken) {
+        if(!tokenProvider.validToken(accessToken)) {
+            return false;
+        }
+
+        String tokenId = tokenProvider.getTokenId(accessToken);
+
+        if(tokenId == null) {
+            return false;
+        }
+
+        tokenRevocationService.revoke(tokenId, tokenProvider.getExpiration(accessToken).getTime());
+        return true;
+    }
 }
@@ -0,0 +1,115 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.config.TrendingProperties;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.dto.TrendingArticleResponse;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+* "지금 뜨는 글" 목록
+*
+* 조회수를 DB에 쌓아서 ORDER BY 하지 않고, 글을 읽을 때마다 메모리의 스케치에 id만 넣는다.
+* 시간을 window 길이의 구간으로 나누고 구간마다 SpaceSavingSketch를 하나씩 둔다.
+* 구간들은 TokenRevocationService처럼 epoch % windows 위치의 링에 담기고,
+* 슬롯이 다음 바퀴의 구간에 재사용될 때 새 스케치로 바뀐다. 메모리는 windows * capacity로 고정이다.
+*
+* refresh()가 주기적으로 구간들을 decay^(지난 구간 수) 가중치로 합쳐서 상위 size개를 고르고,
+* 제목까지 채운 불변 리스트로 만들어 둔다. GET /api/articles/trending은 그 리스트를 그대로 돌려주기만 한다.
+*/
+@Service
+public class TrendingService {
+
+    private final BlogRepository blogRepository;
+    private final TrendingProperties properties;
+    private final long windowMillis;
+    private final AtomicReferenceArray<Window> ring;
+
+    private volatile List<TrendingArticleResponse> trending = List.of();
+
+    public TrendingService(BlogRepository blogRepository, TrendingProperties properties) {
+        this.blogRepository = blogRepository;
+        this.properties = properties;
+        this.windowMillis = properties.getWindow().toMillis();
+        this.ring = new AtomicReferenceArray<>(properties.getWindows());
+    }
+
+    // 글을 읽는 경로(상세 API, 상세 화면)에서 부른다
+    public void recordView(long articleId) {
+        long epoch = System.currentTimeMillis() / windowMillis;
+        int slot = (int) (epoch % ring.length());
+
+        while (true) {
+            Window window = ring.get(slot);
+
+            if (window != null && window.epoch() == epoch) {
+                window.sketch().offer(articleId);
+                return;
+            }
+
+            Window rotated = new Window(epoch, new SpaceSavingSketch(properties.getCapacity()));
+
+            if (ring.compareAndSet(slot, window, rotated)) {
+                rotated.sketch().offer(articleId);
+                return;
+            }
+        }
+    }
+
+    public List<TrendingArticleResponse> getTrending() {
+        return trending;
+    }
+
+    @Scheduled(fixedDelayString = "${article.trending.refresh-interval:5000}")
+    public void refresh() {
+        long currentEpoch = System.currentTimeMillis() / windowMillis;
+        Map<Long, Double> scores = new HashMap<>();
+
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Window window = ring.get(slot);
+            long age = window == null ? -1 : currentEpoch - window.epoch();
+
+            if (age < 0 || age >= ring.length()) {
+                continue;
+            }
+
+            double weight = Math.pow(properties.getDecay(), age);
+            window.sketch().forEach((id, count, error) -> scores.merge(id, count * weight, Double::sum));
+        }
+
+        // 지워진 글이 빠져도 size개를 채울 수 있게 조금 넉넉하게 고른다
+        List<Map.Entry<Long, Double>> top = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(properties.getSize() * 2L)
+                .toList();
+
+        Map<Long, Article> articles = blogRepository.findAllById(top.stream().map(Map.Entry::getKey).toList())
+                .stream()
+                .filter(article -> !article.isDeleted())
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+
+        List<TrendingArticleResponse> refreshed = new ArrayList<>(properties.getSize());
+        for (Map.Entry<Long, Double> entry : top) {
+            Article article = articles.get(entry.getKey());
+
+            if (article != null && refreshed.size() < properties.getSize()) {
+                refreshed.add(new TrendingArticleResponse(article.getId(), article.getTitle(),
+                        article.getAuthor(), entry.getValue()));
+            }
+        }
+
+        trending = List.copyOf(refreshed);
+    }
+
+    private record Window(long epoch, SpaceSavingSketch sketch) {
+    }
+}
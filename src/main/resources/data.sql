@@ -1,3 +1,6 @@
-INSERT INTO article (title, content,author, created_at, updated_at) VALUES ('제목 1','user1', '내용 1', NOW(), NOW())
-INSERT INTO article (title, content,author, created_at, updated_at) VALUES ('제목 2','user2', '내용 2', NOW(), NOW())
-INSERT INTO article (title, content,author, created_at, updated_at) VALUES ('제목 3','user3', '내용 3', NOW(), NOW())
\ No newline at end of file
+INSERT INTO article_body (data, compressed, raw_length, stored_length) VALUES (X'7573657231', FALSE, 5, 5)
+INSERT INTO article (title, body_id, author, created_at, updated_at) VALUES ('제목 1', (SELECT MAX(id) FROM article_body), '내용 1', NOW(), NOW())
+INSERT INTO article_body (data, compressed, raw_length, stored_length) VALUES (X'7573657232', FALSE, 5, 5)
+INSERT INTO article (title, body_id, author, created_at, updated_at) VALUES ('제목 2', (SELECT MAX(id) FROM article_body), '내용 2', NOW(), NOW())
+INSERT INTO article_body (data, compressed, raw_length, stored_length) VALUES (X'7573657233', FALSE, 5, 5)
+INSERT INTO article (title, body_id, author, created_at, updated_at) VALUES ('제목 3', (SELECT MAX(id) FROM article_body), '내용 3', NOW(), NOW())
\ No newline at end of file
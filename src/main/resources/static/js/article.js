@@ -41,7 +41,10 @@ if (modifyButton) {
             location.replace(`/articles/${id}`);
         }
 
-        httpRequest('PUT',`/api/articles/${id}`, body, success, fail);
+        // 수정 화면을 열 때 읽은 글의 버전, 그 사이에 다른 사람이 고쳤으면 서버가 412로 거절한다
+        let version = document.getElementById('article-version').value;
+
+        httpRequest('PUT',`/api/articles/${id}`, body, success, fail, { 'If-Match': `"${version}"` });
     });
 }
 
@@ -117,12 +120,13 @@ function deleteCookie(name) {
 
 
 // HTTP 요청을 보내는 함수
-function httpRequest(method, url, body, success, fail) {
+function httpRequest(method, url, body, success, fail, extraHeaders = {}) {
     fetch(url, {
         method: method,
         headers: { // 로컬 스토리지에서 액세스 토큰 값을 가져와 헤더에 추가
             Authorization: 'Bearer ' + localStorage.getItem('access_token'),
             'Content-Type': 'application/json',
+            ...extraHeaders,
         },
         body: body,
     }).then(response => {
@@ -148,7 +152,7 @@ function httpRequest(method, url, body, success, fail) {
                 })
                 .then(result => { // 재발급이 성공하면 로컬 스토리지값을 새로운 액세스 토큰으로 교체
                     localStorage.setItem('access_token', result.accessToken);
-                    httpRequest(method, url, body, success, fail);
+                    httpRequest(method, url, body, success, fail, extraHeaders);
                 })
                 .catch(error => fail());
         } else {
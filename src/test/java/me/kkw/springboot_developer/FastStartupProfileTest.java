@@ -0,0 +1,42 @@
+package me.kkw.springboot_developer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+* fast-startup 프로필(지연 초기화, 지연 리포지토리 부트스트랩, data.sql 생략)로도
+* 컨텍스트가 뜨고 첫 /api/articles 요청이 성공하는지 확인한다
+*/
+@SpringBootTest
+@ActiveProfiles("fast-startup")
+public class FastStartupProfileTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void mockMvcSetUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @DisplayName("fast-startup 프로필로 띄워도 글 목록 조회에 성공한다.")
+    @WithMockUser
+    @Test
+    void findAllArticles() throws Exception {
+        mockMvc.perform(get("/api/articles"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,112 @@
+package me.kkw.springboot_developer.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+* 한도 계산은 응답 시간 샘플을 직접 넣어서, 필터는 스프링 없이 목 요청으로 확인한다
+*/
+public class ConcurrencyLimitFilterTest {
+
+    @DisplayName("GradientConcurrencyLimit: 응답 시간이 그대로면 한도가 늘고, 느려지면 줄어든다.")
+    @Test
+    void limitFollowsLatency() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 2, 200, 0.5, 1.5, 10);
+
+        saturate(limit, 10, 200);
+        int grown = limit.getLimit();
+
+        saturate(limit, 100, 200);
+
+        Assertions.assertThat(grown).isGreaterThan(20);
+        Assertions.assertThat(limit.getLimit()).isLessThan(grown);
+        Assertions.assertThat(limit.getLimit()).isGreaterThanOrEqualTo(2);
+    }
+
+    @DisplayName("GradientConcurrencyLimit: 처리 중인 요청이 적으면 한도를 바꾸지 않는다.")
+    @Test
+    void limitIgnoresIdleSamples() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 2, 200, 0.5, 1.5, 10);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(i < 50 ? 10 : 100));
+        }
+
+        Assertions.assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @DisplayName("filter: 한도가 찬 경로 종류만 503으로 거절하고 거절 수를 남긴다.")
+    @Test
+    void rejectsWhenFull() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setRead(new ConcurrencyLimitProperties.RouteLimit(1, 1, 1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+
+        filter.getLimit(ConcurrencyLimitFilter.RouteClass.READ).tryAcquire();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/articles"), rejected, new MockFilterChain());
+
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/articles"), write, new MockFilterChain());
+
+        MockHttpServletResponse staticFile = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/js/article.js"), staticFile, new MockFilterChain());
+
+        Assertions.assertThat(rejected.getStatus()).isEqualTo(503);
+        Assertions.assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        Assertions.assertThat(write.getStatus()).isEqualTo(200);
+        Assertions.assertThat(staticFile.getStatus()).isEqualTo(200);
+        Assertions.assertThat(meterRegistry.get("http.concurrency.rejected").tag("route", "read").counter().count())
+                .isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("http.concurrency.limit").tag("route", "read").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @DisplayName("filter: 대량 가져오기는 쓰기와 따로 고정 한도를 두고, 넘으면 503으로 거절한다.")
+    @Test
+    void limitsImportSeparately() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+        GradientConcurrencyLimit importLimit = filter.getLimit(ConcurrencyLimitFilter.RouteClass.IMPORT);
+
+        while (importLimit.tryAcquire()) {
+            // 가져오기 자리를 모두 채운다
+        }
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/articles/import"), rejected, new MockFilterChain());
+
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/articles"), write, new MockFilterChain());
+
+        Assertions.assertThat(importLimit.getLimit()).isEqualTo(2);
+        Assertions.assertThat(rejected.getStatus()).isEqualTo(503);
+        Assertions.assertThat(write.getStatus()).isEqualTo(200);
+        Assertions.assertThat(meterRegistry.get("http.concurrency.rejected").tag("route", "import").counter().count())
+                .isEqualTo(1);
+    }
+
+    // 한도만큼 요청을 채워 둔 상태에서 하나 끝날 때마다 하나 새로 받는다
+    private static void saturate(GradientConcurrencyLimit limit, long rttMillis, int samples) {
+        while (limit.tryAcquire()) {
+            // 빈 자리를 모두 채운다
+        }
+        for (int i = 0; i < samples; i++) {
+            limit.release(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+            while (limit.tryAcquire()) {
+                // 한도가 늘었으면 늘어난 만큼 더 채운다
+            }
+        }
+    }
+}
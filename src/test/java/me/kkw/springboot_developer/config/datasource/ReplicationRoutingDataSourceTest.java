@@ -0,0 +1,80 @@
+package me.kkw.springboot_developer.config.datasource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/*
+* H2 인메모리 DB 두 개를 프라이머리와 레플리카로 놓고
+* 각 DB의 marker 테이블에 다른 값을 넣어서 어느 쪽으로 라우팅됐는지 확인한다
+*/
+public class ReplicationRoutingDataSourceTest {
+
+    DataSource primary;
+    DataSource replica;
+    ReplicationRoutingDataSource routingDataSource;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readOnlyTransaction;
+    TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    public void setUp() {
+        primary = h2("routing-primary", "primary");
+        replica = h2("routing-replica", "replica");
+
+        routingDataSource = new ReplicationRoutingDataSource(primary, replica);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @DisplayName("읽기 전용 트랜잭션은 레플리카, 쓰기 트랜잭션은 프라이머리로 간다.")
+    @Test
+    void routesByReadOnlyFlag() {
+        Assertions.assertThat(readOnlyTransaction.execute(status -> marker())).isEqualTo("replica");
+        Assertions.assertThat(writeTransaction.execute(status -> marker())).isEqualTo("primary");
+    }
+
+    @DisplayName("레플리카 지연이 허용치를 넘으면 읽기도 프라이머리로 간다.")
+    @Test
+    void fallsBackWhenReplicaLags() {
+        new ReplicaLagMonitor(routingDataSource, replica, "SELECT 10", Duration.ofSeconds(5)).check();
+
+        Assertions.assertThat(routingDataSource.isReplicaAvailable()).isFalse();
+        Assertions.assertThat(readOnlyTransaction.execute(status -> marker())).isEqualTo("primary");
+
+        new ReplicaLagMonitor(routingDataSource, replica, "SELECT 1", Duration.ofSeconds(5)).check();
+
+        Assertions.assertThat(readOnlyTransaction.execute(status -> marker())).isEqualTo("replica");
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource h2(String name, String marker) {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS marker");
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO marker (name) VALUES (?)", marker);
+        return dataSource;
+    }
+}
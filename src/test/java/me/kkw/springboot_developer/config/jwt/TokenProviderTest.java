@@ -3,6 +3,8 @@ package me.kkw.springboot_developer.config.jwt;
 import io.jsonwebtoken.Jwts;
 import me.kkw.springboot_developer.domain.User;
 import me.kkw.springboot_developer.respository.UserRepository;
+import me.kkw.springboot_developer.service.TokenRevocationService;
+import me.kkw.springboot_developer.service.TokenService;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +15,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.Duration;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 @SpringBootTest
@@ -24,6 +27,10 @@ public class TokenProviderTest {
     private UserRepository userRepository;
     @Autowired
     private JwtProperties jwtProperties;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @DisplayName("generateToken(): 유저 벙보와 만료 기간을 전달해 토큰을 만들 수 있다.")
     @Test
@@ -67,6 +74,65 @@ public class TokenProviderTest {
         Assertions.assertThat(result).isTrue();
     }
 
+    @DisplayName("validToken(): 폐기된 토큰일 때에 유효성 검증에 실패한다.")
+    @Test
+    void validToken_revokedToken() {
+        User testUser = userRepository.save(User.builder()
+                .email("revoked@email.com")
+                .password("test")
+                .build());
+
+        String token = tokenProvider.generateToken(testUser, Duration.ofHours(1));
+        String otherToken = tokenProvider.generateToken(testUser, Duration.ofHours(1));
+
+        boolean revoked = tokenService.revokeAccessToken(token);
+
+        Assertions.assertThat(revoked).isTrue();
+        Assertions.assertThat(tokenProvider.validToken(token)).isFalse();
+        Assertions.assertThat(tokenProvider.validToken(otherToken)).isTrue();
+    }
+
+    @DisplayName("validToken(): 검증 전용 키로 서명된 토큰은 통과하고, 모르는 kid의 토큰은 실패한다.")
+    @Test
+    void validToken_rotatedKey() {
+        User testUser = userRepository.save(User.builder()
+                .email("rotated@email.com")
+                .password("test")
+                .build());
+
+        TokenProvider oldProvider = new TokenProvider(
+                keyProperties(signingKey("old", JwtProperties.KeyStatus.ACTIVE)), tokenRevocationService);
+        TokenProvider rotatedProvider = new TokenProvider(
+                keyProperties(signingKey("old", JwtProperties.KeyStatus.VERIFY_ONLY),
+                        signingKey("new", JwtProperties.KeyStatus.ACTIVE)), tokenRevocationService);
+        TokenProvider unknownKidProvider = new TokenProvider(
+                keyProperties(signingKey("other", JwtProperties.KeyStatus.ACTIVE)), tokenRevocationService);
+
+        String oldToken = oldProvider.generateToken(testUser, Duration.ofHours(1));
+        String newToken = rotatedProvider.generateToken(testUser, Duration.ofHours(1));
+
+        Assertions.assertThat(rotatedProvider.validToken(oldToken)).isTrue();
+        Assertions.assertThat(rotatedProvider.validToken(newToken)).isTrue();
+        Assertions.assertThat(oldProvider.validToken(newToken)).isFalse();
+        Assertions.assertThat(unknownKidProvider.validToken(oldToken)).isFalse();
+    }
+
+    private JwtProperties keyProperties(JwtProperties.SigningKey... keys) {
+        JwtProperties properties = new JwtProperties();
+        properties.setIssuer(jwtProperties.getIssuer());
+        properties.setSecretKey(jwtProperties.getSecretKey());
+        properties.setKeys(List.of(keys));
+        return properties;
+    }
+
+    private JwtProperties.SigningKey signingKey(String kid, JwtProperties.KeyStatus status) {
+        JwtProperties.SigningKey signingKey = new JwtProperties.SigningKey();
+        signingKey.setKid(kid);
+        signingKey.setSecret(kid + "-secret-key");
+        signingKey.setStatus(status);
+        return signingKey;
+    }
+
     @DisplayName("getAuthentication(): 토큰 기반으로 인증 정보를 가져올 수 있다.")
     @Test
     void getAuthentication() {
@@ -0,0 +1,166 @@
+package me.kkw.springboot_developer.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.Attachment;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import me.kkw.springboot_developer.service.AttachmentService;
+import me.kkw.springboot_developer.service.BlogService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "attachment.storage-path=build/test-attachments")
+public class AttachmentApiControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    AttachmentService attachmentService;
+
+    @Autowired
+    BlogService blogService;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void mockMvcSetUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @DisplayName("첨부 파일을 올리고 전체, 범위, 조건부로 내려받는다.")
+    @WithMockUser("user")
+    @Test
+    public void uploadAndDownload() throws Exception {
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+        byte[] content = "0123456789abcdef".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+        MvcResult uploaded = mockMvc.perform(post("/api/articles/{id}/attachments", article.getId())
+                        .param("filename", "../numbers.txt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(content))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String json = uploaded.getResponse().getContentAsString();
+        Integer id = JsonPath.read(json, "$.id");
+        String sha256 = JsonPath.read(json, "$.sha256");
+
+        Assertions.assertThat((String) JsonPath.read(json, "$.fileName")).isEqualTo("numbers.txt");
+        Assertions.assertThat(((Number) JsonPath.read(json, "$.size")).longValue()).isEqualTo(content.length);
+
+        MvcResult full = mockMvc.perform(get("/api/attachments/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + sha256 + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string("Content-Security-Policy", "sandbox"))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andReturn();
+        Assertions.assertThat(full.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION)).startsWith("attachment");
+        Assertions.assertThat(full.getResponse().getContentAsByteArray()).isEqualTo(content);
+
+        MvcResult partial = mockMvc.perform(get("/api/attachments/{id}", id)
+                        .header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + content.length))
+                .andReturn();
+        Assertions.assertThat(partial.getResponse().getContentAsByteArray())
+                .isEqualTo(Arrays.copyOfRange(content, 10, 20));
+
+        mockMvc.perform(get("/api/attachments/{id}", id)
+                        .header(HttpHeaders.RANGE, "bytes=" + content.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + content.length));
+
+        mockMvc.perform(get("/api/attachments/{id}", id)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + sha256 + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @DisplayName("래스터 이미지는 inline으로 내려준다.")
+    @WithMockUser("user")
+    @Test
+    public void downloadImageInline() throws Exception {
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+
+        MvcResult uploaded = mockMvc.perform(post("/api/articles/{id}/attachments", article.getId())
+                        .param("filename", "pixel.png")
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content(new byte[]{(byte) 0x89, 'P', 'N', 'G'}))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Integer id = JsonPath.read(uploaded.getResponse().getContentAsString(), "$.id");
+
+        MvcResult result = mockMvc.perform(get("/api/attachments/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn();
+        Assertions.assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION)).startsWith("inline");
+    }
+
+    @DisplayName("삭제된 글의 첨부 파일은 내려주지 않는다.")
+    @WithMockUser("user")
+    @Test
+    public void downloadDeletedArticleAttachment() throws Exception {
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+        Attachment attachment = attachmentService.upload(article.getId(), "deleted.png", "image/png",
+                new ByteArrayInputStream(new byte[]{(byte) 0x89, 'P', 'N', 'G', 1}));
+
+        mockMvc.perform(get("/api/attachments/{id}", attachment.getId()))
+                .andExpect(status().isOk());
+
+        blogService.delete(article.getId());
+
+        Assertions.assertThatThrownBy(() -> mockMvc.perform(get("/api/attachments/{id}", attachment.getId())))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("글쓴이가 아니면 첨부 파일을 올릴 수 없다.")
+    @WithMockUser("other")
+    @Test
+    public void uploadByOtherUser() {
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+
+        Assertions.assertThatThrownBy(() -> attachmentService.upload(article.getId(), "a.html", "text/html",
+                        new ByteArrayInputStream("<script>alert(1)</script>".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,6 +1,9 @@
 package me.kkw.springboot_developer.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.jayway.jsonpath.JsonPath;
 import me.kkw.springboot_developer.domain.Article;
 import me.kkw.springboot_developer.dto.AddArticleRequest;
 import me.kkw.springboot_developer.dto.UpdateArticleRequest;
@@ -12,8 +15,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
@@ -21,6 +28,7 @@ import org.springframework.web.context.WebApplicationContext;
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -98,7 +106,7 @@ public class BlogApiControllerTest {
         */
         result.andExpect(status().isCreated());
 
-        List<Article> articles = blogRepository.findAll();
+        List<Article> articles = blogRepository.findAllWithBody();
 
         Assertions.assertThat(articles.size()).isEqualTo(1);
         Assertions.assertThat(articles.getFirst().getTitle()).isEqualTo(title);
@@ -146,6 +154,7 @@ public class BlogApiControllerTest {
         final String content = "내용";
 
         Article savedArticle = blogRepository.save(Article.builder()
+                .author("user")
                 .title(title)
                 .content(content)
                 .build());
@@ -168,6 +177,7 @@ public class BlogApiControllerTest {
 
     @Test
     @DisplayName("deleteArticle: 블로그 글 삭제 성공한다.")
+    @WithMockUser("user")
     public void deleteArticle() throws Exception{
 
         // given
@@ -176,6 +186,7 @@ public class BlogApiControllerTest {
         final String content = "내용";
 
         final Article savedArticle = blogRepository.save(Article.builder()
+                .author("user")
                 .title(title)
                 .content(content)
                 .build());
@@ -192,8 +203,24 @@ public class BlogApiControllerTest {
         Assertions.assertThat(articles).isEmpty();
     }
 
+    @Test
+    @DisplayName("deleteArticle: 글쓴이가 아니면 삭제할 수 없다.")
+    @WithMockUser("other")
+    public void deleteArticle_notAuthor() {
+        Article savedArticle = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+
+        Assertions.assertThatThrownBy(() -> mockMvc.perform(delete("/api/articles/{id}", savedArticle.getId())))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThat(blogRepository.findById(savedArticle.getId())).isPresent();
+    }
+
     @Test
     @DisplayName("putArticle: 블로그 글수정에 성공한다.")
+    @WithMockUser("user")
     public void putArticle() throws Exception{
 
         // given
@@ -202,6 +229,7 @@ public class BlogApiControllerTest {
         final String content = "내용";
 
         Article savedArticle = blogRepository.save(Article.builder()
+                .author("user")
                 .title(title)
                 .content(content)
                 .build());
@@ -215,6 +243,7 @@ public class BlogApiControllerTest {
 
         // when
         ResultActions result = mockMvc.perform(put(url, savedArticle.getId())
+                .header(HttpHeaders.IF_MATCH, "\"" + savedArticle.getVersion() + "\"")
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
                 .content(requestBody));
 
@@ -231,10 +260,190 @@ public class BlogApiControllerTest {
         * 만약에 못찾았는데 .get() 이래버리면 큰일나는거 => NoSuchElementException 에러 펑
         *
         */
-        Article article = blogRepository.findById(savedArticle.getId())
+        Article article = blogRepository.findWithBodyById(savedArticle.getId())
                 .orElseThrow(()->new IllegalArgumentException("not found " + savedArticle.getId()));
 
         Assertions.assertThat(article.getTitle()).isEqualTo(newTitle);
         Assertions.assertThat(article.getContent()).isEqualTo(newContent);
     }
+
+    @Test
+    @DisplayName("putArticle: 본문만 고쳐도 ETag가 바뀌고, 이전 ETag로는 다시 고칠 수 없다.")
+    @WithMockUser("user")
+    public void putArticle_contentOnly() throws Exception {
+        final String url = "/api/articles/{id}";
+
+        Article savedArticle = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+
+        String eTag = mockMvc.perform(get(url, savedArticle.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        final String requestBody = objectMapper.writeValueAsString(new UpdateArticleRequest("제목", "고친 내용"));
+
+        String updatedETag = mockMvc.perform(put(url, savedArticle.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Assertions.assertThat(updatedETag).isNotEqualTo(eTag);
+
+        mockMvc.perform(get(url, savedArticle.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value("고친 내용"))
+                .andExpect(result -> Assertions.assertThat(result.getResponse().getHeader(HttpHeaders.ETAG))
+                        .isEqualTo(updatedETag));
+
+        mockMvc.perform(put(url, savedArticle.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(new UpdateArticleRequest("제목", "또 고친 내용"))))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("findAuthorArticles: 작성자별 글 목록을 커서로 나눠서 조회한다.")
+    public void findAuthorArticles() throws Exception {
+        final String url = "/api/users/{author}/articles";
+
+        for (int i = 1; i <= 3; i++) {
+            blogRepository.save(Article.builder()
+                    .author("writer")
+                    .title("제목 " + i)
+                    .content("내용 " + i)
+                    .build());
+        }
+        blogRepository.save(Article.builder()
+                .author("other")
+                .title("다른 글")
+                .content("내용")
+                .build());
+
+        ResultActions firstPage = mockMvc.perform(get(url, "writer")
+                .param("size", "2")
+                .accept(MediaType.APPLICATION_JSON));
+
+        firstPage
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles.length()").value(2))
+                .andExpect(jsonPath("$.articles[0].title").value("제목 3"))
+                .andExpect(jsonPath("$.articles[1].title").value("제목 2"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+
+        String nextCursor = JsonPath.read(
+                firstPage.andReturn().getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get(url, "writer")
+                        .param("size", "2")
+                        .param("cursor", nextCursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles.length()").value(1))
+                .andExpect(jsonPath("$.articles[0].title").value("제목 1"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("putArticle: 버전이 다르거나 약한 ETag인 If-Match로 수정하면 412로 거절한다.")
+    public void putArticle_versionConflict() throws Exception {
+        final String url = "/api/articles/{id}";
+
+        Article savedArticle = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+
+        final String requestBody = objectMapper.writeValueAsString(new UpdateArticleRequest("title", "content"));
+
+        mockMvc.perform(put(url, savedArticle.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"" + (savedArticle.getVersion() + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(requestBody))
+                .andExpect(status().isPreconditionFailed());
+
+        // If-Match는 강한 비교라서 버전이 같아도 약한 ETag로는 고칠 수 없다
+        mockMvc.perform(put(url, savedArticle.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"" + savedArticle.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(requestBody))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put(url, savedArticle.getId())
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(requestBody))
+                .andExpect(status().isPreconditionRequired());
+
+        Article article = blogRepository.findById(savedArticle.getId()).orElseThrow();
+
+        Assertions.assertThat(article.getTitle()).isEqualTo("제목");
+    }
+
+    @Test
+    @DisplayName("patchArticle: 보낸 필드만 수정하고 나머지는 그대로 둔다.")
+    @WithMockUser("user")
+    public void patchArticle() throws Exception {
+        final String url = "/api/articles/{id}";
+
+        Article savedArticle = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+
+        mockMvc.perform(patch(url, savedArticle.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"" + savedArticle.getVersion() + "\"")
+                        .contentType(BlogApiController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"title\": \"새 제목\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch(url, savedArticle.getId())
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(BlogApiController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"content\": null}"))
+                .andExpect(status().isBadRequest());
+
+        Article article = blogRepository.findWithBodyById(savedArticle.getId()).orElseThrow();
+
+        Assertions.assertThat(article.getTitle()).isEqualTo("새 제목");
+        Assertions.assertThat(article.getContent()).isEqualTo("내용");
+    }
+
+    @Test
+    @DisplayName("addArticle/findArticle: CBOR로 보내고 Accept에 따라 CBOR나 JSON으로 받는다.")
+    public void cborArticle() throws Exception {
+        final String url = "/api/articles";
+        final CBORMapper cborMapper = new CBORMapper();
+        final byte[] requestBody = cborMapper.writeValueAsBytes(new AddArticleRequest("제목", "내용"));
+
+        MvcResult created = mockMvc.perform(post(url)
+                        .principal(new UsernamePasswordAuthenticationToken("user", null))
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(requestBody))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        long id = cborMapper.readTree(created.getResponse().getContentAsByteArray()).get("id").asLong();
+
+        MvcResult found = mockMvc.perform(get(url + "/{id}", id)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode article = cborMapper.readTree(found.getResponse().getContentAsByteArray());
+
+        Assertions.assertThat(article.get("title").asText()).isEqualTo("제목");
+        Assertions.assertThat(article.get("content").asText()).isEqualTo("내용");
+
+        mockMvc.perform(get(url + "/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.title").value("제목"));
+    }
 }
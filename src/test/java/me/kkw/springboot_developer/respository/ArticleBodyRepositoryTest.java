@@ -0,0 +1,88 @@
+package me.kkw.springboot_developer.respository;
+
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleBody;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+@SpringBootTest
+public class ArticleBodyRepositoryTest {
+
+    @Autowired
+    ArticleBodyRepository articleBodyRepository;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @DisplayName("save(): 긴 본문은 압축해서 저장하고 다시 읽으면 원래 내용이 나온다.")
+    @Test
+    void save_compressed() {
+        final String content = "반복되는 본문입니다. ".repeat(200);
+
+        ArticleBody saved = articleBodyRepository.save(ArticleBody.of(content));
+        ArticleBody body = articleBodyRepository.findById(saved.getId()).orElseThrow();
+
+        Assertions.assertThat(body.isCompressed()).isTrue();
+        Assertions.assertThat(body.getStoredLength()).isLessThan(body.getRawLength());
+        Assertions.assertThat(body.getContent()).isEqualTo(content);
+    }
+
+    @DisplayName("decode(): 잘린 압축 본문은 끝없이 풀려고 하지 않고 예외를 던진다.")
+    @Test
+    void decode_truncated() {
+        byte[] raw = "반복되는 본문입니다. ".repeat(200).getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] deflated = new byte[raw.length];
+        int length = deflater.deflate(deflated);
+        deflater.end();
+
+        byte[] truncated = Arrays.copyOf(deflated, length / 2);
+
+        Assertions.assertThatThrownBy(() -> ArticleBody.decode(truncated, true, raw.length))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("corrupted article body");
+    }
+
+    @DisplayName("update(): 본문만 바꿔도 글의 버전과 수정 시각이 올라간다.")
+    @Test
+    void update_contentOnly() {
+        Article saved = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("원래 본문")
+                .build());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                blogRepository.findWithBodyById(saved.getId()).orElseThrow().update("제목", "바뀐 본문"));
+
+        Article updated = blogRepository.findWithBodyById(saved.getId()).orElseThrow();
+        Assertions.assertThat(updated.getContent()).isEqualTo("바뀐 본문");
+        Assertions.assertThat(updated.getVersion()).isGreaterThan(saved.getVersion());
+        Assertions.assertThat(updated.getUpdatedAt()).isAfter(saved.getUpdatedAt());
+    }
+
+    @DisplayName("save(): 짧은 본문은 압축하지 않고 그대로 저장한다.")
+    @Test
+    void save_uncompressed() {
+        ArticleBody saved = articleBodyRepository.save(ArticleBody.of("짧은 본문"));
+        ArticleBody body = articleBodyRepository.findById(saved.getId()).orElseThrow();
+
+        Assertions.assertThat(body.isCompressed()).isFalse();
+        Assertions.assertThat(body.getStoredLength()).isEqualTo(body.getRawLength());
+        Assertions.assertThat(body.getContent()).isEqualTo("짧은 본문");
+    }
+}
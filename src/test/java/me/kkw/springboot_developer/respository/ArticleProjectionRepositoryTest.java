@@ -0,0 +1,88 @@
+package me.kkw.springboot_developer.respository;
+
+import jakarta.persistence.EntityManagerFactory;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.dto.AddArticleRequest;
+import me.kkw.springboot_developer.dto.ArticleField;
+import me.kkw.springboot_developer.service.BlogService;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+* 필드 선택 조회가 엔티티를 만들지 않고 고른 컬럼만 읽는지 하이버네이트 통계로 확인한다
+*/
+@SpringBootTest
+public class ArticleProjectionRepositoryTest {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    BlogService blogService;
+
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @DisplayName("findAllProjected(): 고른 필드만 쿼리 하나로 읽고 엔티티는 만들지 않는다.")
+    @Test
+    void findAllProjected() {
+        blogRepository.deleteAll();
+        blogService.save(new AddArticleRequest("제목 1", "내용 1"), "user");
+        blogService.save(new AddArticleRequest("제목 2", "내용 2"), "user");
+        statistics.clear();
+
+        List<Map<String, Object>> articles = blogRepository.findAllProjected(
+                ArticleField.parse("title,id"), null);
+
+        Assertions.assertThat(articles).hasSize(2);
+        Assertions.assertThat(articles.getFirst().keySet()).containsExactly("title", "id");
+        Assertions.assertThat(articles).extracting(article -> article.get("title"))
+                .containsExactly("제목 1", "제목 2");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @DisplayName("findProjectedById(): 압축된 본문과 태그도 고르면 같이 읽는다.")
+    @Test
+    void findProjectedById() {
+        String content = "긴 본문 ".repeat(500);
+        Article article = blogService.save(new AddArticleRequest("제목", content, List.of("b", "a")), "user");
+
+        Map<String, Object> projected = blogRepository.findProjectedById(article.getId(),
+                ArticleField.parse("content,tags")).orElseThrow();
+
+        Assertions.assertThat(projected.keySet()).containsExactly("content", "tags");
+        Assertions.assertThat(projected.get("content")).isEqualTo(content);
+        Assertions.assertThat(projected.get("tags")).isEqualTo(List.of("a", "b"));
+    }
+
+    @DisplayName("parse(): 모르는 필드는 예외가 난다.")
+    @Test
+    void parse_unknownField() {
+        Assertions.assertThatThrownBy(() -> ArticleField.parse("id,password"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
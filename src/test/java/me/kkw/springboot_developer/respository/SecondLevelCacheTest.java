@@ -0,0 +1,158 @@
+package me.kkw.springboot_developer.respository;
+
+import jakarta.persistence.EntityManagerFactory;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.User;
+import me.kkw.springboot_developer.dto.AddCommentRequest;
+import me.kkw.springboot_developer.dto.ArticleMultiGetResponse;
+import me.kkw.springboot_developer.dto.ArticleResponse;
+import me.kkw.springboot_developer.dto.UpdateArticleRequest;
+import me.kkw.springboot_developer.service.BlogService;
+import me.kkw.springboot_developer.service.CommentService;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.util.List;
+
+/*
+* 2차 캐시가 실제로 DB 왕복을 없애는지 하이버네이트 통계의 SQL 실행 횟수로 확인한다
+* 통계는 비용이 있어서 설정 파일이 아니라 테스트에서만 켠다
+*/
+@SpringBootTest
+public class SecondLevelCacheTest {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    CommentService commentService;
+
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @DisplayName("findById(): 한 번 읽은 글은 다시 읽어도 SQL을 실행하지 않는다.")
+    @Test
+    void findById_cached() {
+        Article savedArticle = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+        blogRepository.findById(savedArticle.getId());
+
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            blogRepository.findById(savedArticle.getId());
+        }
+
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+        Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(3);
+    }
+
+    @DisplayName("update(): 수정한 글은 캐시에서도 새 내용으로 읽힌다.")
+    @Test
+    @WithMockUser(username = "user")
+    void update_refreshesCache() {
+        Article savedArticle = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+        blogRepository.findById(savedArticle.getId());
+
+        blogService.update(savedArticle.getId(), new UpdateArticleRequest("새 제목", "새 내용"),
+                savedArticle.getVersion());
+
+        statistics.clear();
+
+        Article article = blogRepository.findById(savedArticle.getId()).orElseThrow();
+
+        Assertions.assertThat(article.getTitle()).isEqualTo("새 제목");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @DisplayName("findByEmail(): 같은 이메일을 다시 조회하면 쿼리 캐시에서 읽는다.")
+    @Test
+    void findByEmail_cached() {
+        userRepository.save(User.builder()
+                .email("cache@email.com")
+                .password("test")
+                .build());
+        userRepository.findByEmail("cache@email.com");
+
+        statistics.clear();
+
+        User user = userRepository.findByEmail("cache@email.com").orElseThrow();
+
+        Assertions.assertThat(user.getEmail()).isEqualTo("cache@email.com");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+        Assertions.assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @DisplayName("findAllById(): 캐시에 있는 글은 캐시에서, 나머지는 IN 쿼리 하나로 읽고 요청 순서대로 돌려준다.")
+    @Test
+    void findAllById_cachedAndBatched() {
+        Article cached = blogRepository.save(Article.builder().author("user").title("캐시").content("내용").build());
+        Article first = blogRepository.save(Article.builder().author("user").title("첫째").content("내용").build());
+        Article second = blogRepository.save(Article.builder().author("user").title("둘째").content("내용").build());
+        entityManagerFactory.getCache().evict(Article.class, first.getId());
+        entityManagerFactory.getCache().evict(Article.class, second.getId());
+        long missingId = second.getId() + 1000;
+
+        statistics.clear();
+
+        ArticleMultiGetResponse response = blogService.findAllById(
+                List.of(second.getId(), missingId, cached.getId(), first.getId(), second.getId()));
+
+        Assertions.assertThat(response.articles()).extracting(ArticleResponse::getTitle)
+                .containsExactly("둘째", "캐시", "첫째");
+        Assertions.assertThat(response.missing()).containsExactly(missingId);
+        Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(1);
+        // 캐시에 없는 글 IN 쿼리, 본문 IN 쿼리, 태그 IN 쿼리
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @DisplayName("CommentService.save(): 댓글을 단 글의 캐시만 비우고 다른 글은 계속 캐시에서 읽는다.")
+    @Test
+    void comment_evictsOnlyCommentedArticle() {
+        Article commented = blogRepository.save(Article.builder().author("user").title("댓글").content("내용").build());
+        Article other = blogRepository.save(Article.builder().author("user").title("다른 글").content("내용").build());
+        blogRepository.findById(commented.getId());
+        blogRepository.findById(other.getId());
+
+        commentService.save(commented.getId(), new AddCommentRequest("댓글", null), "user");
+
+        Assertions.assertThat(entityManagerFactory.getCache().contains(Article.class, commented.getId())).isFalse();
+        Assertions.assertThat(entityManagerFactory.getCache().contains(Article.class, other.getId())).isTrue();
+        Assertions.assertThat(blogRepository.findById(commented.getId()).orElseThrow().getCommentCount())
+                .isEqualTo(1);
+    }
+}
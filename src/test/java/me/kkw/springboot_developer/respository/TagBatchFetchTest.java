@@ -0,0 +1,87 @@
+package me.kkw.springboot_developer.respository;
+
+import jakarta.persistence.EntityManagerFactory;
+import me.kkw.springboot_developer.dto.AddArticleRequest;
+import me.kkw.springboot_developer.dto.ArticleResponse;
+import me.kkw.springboot_developer.service.BlogService;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+* 글 목록에서 태그를 읽을 때 글마다 쿼리가 나가지 않는지(N+1) 하이버네이트 통계의 SQL 실행 횟수로 확인한다
+* 새 트랜잭션(새 영속성 컨텍스트)에서 목록을 읽어서 저장할 때 남은 엔티티를 재사용하지 않게 한다
+*/
+@SpringBootTest
+public class TagBatchFetchTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    BlogService blogService;
+
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        blogRepository.deleteAll();
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            blogService.save(new AddArticleRequest("제목 " + i, "내용 " + i,
+                    List.of("tag-" + i % 5, "common")), "user");
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @DisplayName("findAll(): 50개 글의 태그와 본문을 읽어도 글 목록, 태그, 본문 쿼리 3개만 나간다.")
+    @Test
+    void findAll_tagsBatchFetched() {
+        statistics.clear();
+
+        List<ArticleResponse> articles = new TransactionTemplate(transactionManager).execute(status ->
+                blogService.findAll().stream().map(ArticleResponse::new).toList());
+
+        Assertions.assertThat(articles).hasSize(PAGE_SIZE);
+        Assertions.assertThat(articles).allMatch(article -> article.getTags().contains("common"));
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @DisplayName("findAll(tag): 태그로 거른 목록도 태그를 한 번에 읽는다.")
+    @Test
+    void findAllByTag_tagsBatchFetched() {
+        statistics.clear();
+
+        List<ArticleResponse> articles = new TransactionTemplate(transactionManager).execute(status ->
+                blogService.findAll("TAG-1").stream().map(ArticleResponse::new).toList());
+
+        Assertions.assertThat(articles).hasSize(PAGE_SIZE / 5);
+        Assertions.assertThat(articles).allMatch(article -> article.getTags().contains("tag-1"));
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+}
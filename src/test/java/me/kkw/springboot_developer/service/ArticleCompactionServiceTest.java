@@ -0,0 +1,112 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.config.ArticleCompactionProperties;
+import jakarta.persistence.EntityManagerFactory;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.User;
+import me.kkw.springboot_developer.respository.ArticleBodyRepository;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import me.kkw.springboot_developer.respository.UserRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@SpringBootTest
+public class ArticleCompactionServiceTest {
+
+    @Autowired
+    ArticleCompactionService articleCompactionService;
+
+    @Autowired
+    ArticleCompactionProperties compactionProperties;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    ArticleBodyRepository articleBodyRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Duration retention;
+
+    @BeforeEach
+    public void setUp() {
+        retention = compactionProperties.getRetention();
+        // 방금 삭제한 글도 정리 대상이 되도록 기준 시각을 미래로 민다
+        compactionProperties.setRetention(Duration.ofSeconds(-1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        compactionProperties.setRetention(retention);
+    }
+
+    @DisplayName("compact(): 삭제 표시된 글만 실제로 지운다.")
+    @WithMockUser("user")
+    @Test
+    void compact() {
+        Article deleted = blogRepository.save(Article.builder()
+                .author("user")
+                .title("삭제할 글")
+                .content("내용")
+                .build());
+        Article kept = blogRepository.save(Article.builder()
+                .author("user")
+                .title("남길 글")
+                .content("내용")
+                .build());
+
+        blogService.delete(deleted.getId());
+
+        Assertions.assertThat(blogRepository.findTombstonedIds(LocalDateTime.now().plusSeconds(1), 100))
+                .contains(deleted.getId());
+
+        articleCompactionService.compact();
+
+        Assertions.assertThat(blogRepository.findTombstonedIds(LocalDateTime.now().plusSeconds(1), 100))
+                .doesNotContain(deleted.getId());
+        Assertions.assertThat(blogRepository.findById(kept.getId())).isPresent();
+        Assertions.assertThat(articleBodyRepository.findById(deleted.getBody().getId())).isEmpty();
+        Assertions.assertThat(articleBodyRepository.findById(kept.getBody().getId())).isPresent();
+    }
+
+    @DisplayName("compact(): 지운 테이블과 상관없는 2차 캐시(User)는 비우지 않는다.")
+    @WithMockUser("user")
+    @Test
+    void compact_keepsUnrelatedCache() {
+        User user = userRepository.save(User.builder()
+                .email("compaction@email.com")
+                .password("test")
+                .build());
+        userRepository.findById(user.getId());
+        Article deleted = blogRepository.save(Article.builder()
+                .author("user")
+                .title("삭제할 글")
+                .content("내용")
+                .build());
+        blogService.delete(deleted.getId());
+
+        Assertions.assertThat(entityManagerFactory.getCache().contains(User.class, user.getId())).isTrue();
+
+        articleCompactionService.compact();
+
+        Assertions.assertThat(entityManagerFactory.getCache().contains(User.class, user.getId())).isTrue();
+        userRepository.deleteById(user.getId());
+    }
+}
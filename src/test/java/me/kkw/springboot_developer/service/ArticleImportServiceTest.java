@@ -0,0 +1,112 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.config.ArticleImportProperties;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleEventType;
+import me.kkw.springboot_developer.domain.OutboxEvent;
+import me.kkw.springboot_developer.dto.ArticleImportResponse;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import me.kkw.springboot_developer.respository.OutboxEventRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@SpringBootTest
+public class ArticleImportServiceTest {
+
+    @Autowired
+    ArticleImportService articleImportService;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    ArticleImportProperties importProperties;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    public void setUp() {
+        blogRepository.deleteAll();
+    }
+
+    @DisplayName("importArticles(): 올바른 줄은 저장하고 잘못된 줄은 줄 번호와 함께 건너뛴다.")
+    @Test
+    void importArticles() {
+        String ndjson = """
+                {"title": "제목 1", "content": "내용 1"}
+                {"title": "제목 2", "content": "내용 2", "extra": {"ignored": [1, 2]}}
+
+                not json
+                {"title": "", "content": "내용"}
+                {"title": "제목 3", "content": 3}
+                {"title": "제목 4", "content": "%s"}
+                """.formatted("긴 내용 ".repeat(200));
+
+        ArticleImportResponse result = articleImportService.importArticles(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), "importer");
+
+        Assertions.assertThat(result.getRead()).isEqualTo(6);
+        Assertions.assertThat(result.getImported()).isEqualTo(3);
+        Assertions.assertThat(result.getRejected()).isEqualTo(3);
+        Assertions.assertThat(result.getFailed()).isZero();
+        Assertions.assertThat(result.getErrors())
+                .extracting(ArticleImportResponse.LineError::line)
+                .containsExactly(4L, 5L, 6L);
+
+        List<Article> articles = blogRepository.findAllWithBody();
+        Assertions.assertThat(articles)
+                .extracting(Article::getTitle)
+                .containsExactlyInAnyOrder("제목 1", "제목 2", "제목 4");
+        Assertions.assertThat(articles)
+                .allMatch(article -> article.getAuthor().equals("importer"));
+        Assertions.assertThat(articles)
+                .filteredOn(article -> article.getTitle().equals("제목 4"))
+                .extracting(Article::getContent)
+                .containsExactly("긴 내용 ".repeat(200));
+
+        List<Long> articleIds = articles.stream().map(Article::getId).toList();
+        List<OutboxEvent> events = outboxEventRepository.findAll().stream()
+                .filter(event -> articleIds.contains(event.getAggregateId()))
+                .toList();
+        Assertions.assertThat(events)
+                .extracting(OutboxEvent::getAggregateId)
+                .containsExactlyInAnyOrderElementsOf(articleIds);
+        Assertions.assertThat(events)
+                .allMatch(event -> event.getEventType() == ArticleEventType.CREATED
+                        && event.getAggregateVersion() == 0L
+                        && event.getPayload().contains("\"author\":\"importer\""));
+    }
+
+    @DisplayName("importArticles(): batch-size나 progress-interval이 0이어도 1로 보고 가져온다.")
+    @Test
+    void importArticles_zeroSettings() {
+        int batchSize = importProperties.getBatchSize();
+        int progressInterval = importProperties.getProgressInterval();
+        importProperties.setBatchSize(0);
+        importProperties.setProgressInterval(0);
+
+        try {
+            String ndjson = """
+                    {"title": "제목 1", "content": "내용 1"}
+                    {"title": "제목 2", "content": "내용 2"}
+                    """;
+
+            ArticleImportResponse result = articleImportService.importArticles(
+                    new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), "importer");
+
+            Assertions.assertThat(result.getImported()).isEqualTo(2);
+        } finally {
+            importProperties.setBatchSize(batchSize);
+            importProperties.setProgressInterval(progressInterval);
+        }
+    }
+}
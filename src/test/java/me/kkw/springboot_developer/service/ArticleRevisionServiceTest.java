@@ -0,0 +1,170 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleRevision;
+import me.kkw.springboot_developer.dto.ArticleRevisionResponse;
+import me.kkw.springboot_developer.dto.PatchArticleRequest;
+import me.kkw.springboot_developer.dto.UpdateArticleRequest;
+import me.kkw.springboot_developer.respository.ArticleRevisionRepository;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest
+public class ArticleRevisionServiceTest {
+
+    @Autowired
+    ArticleRevisionService articleRevisionService;
+
+    @Autowired
+    ArticleRevisionRepository articleRevisionRepository;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @DisplayName("findRevision(): 수정할 때마다 남긴 리비전을 그대로 복원한다.")
+    @WithMockUser("user")
+    @Test
+    void findRevision() {
+        String content = "첫 줄\n".repeat(100);
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목 0")
+                .content(content)
+                .build());
+
+        List<String> contents = new ArrayList<>(List.of(content));
+        for (int i = 1; i <= ArticleRevision.SNAPSHOT_INTERVAL + 2; i++) {
+            content = content.replaceFirst("첫 줄\n", "고친 줄 " + i + "\n");
+            contents.add(content);
+            blogService.update(article.getId(), new UpdateArticleRequest("제목 " + i, content), null);
+        }
+
+        for (int revision = 1; revision <= contents.size(); revision++) {
+            ArticleRevisionResponse restored = articleRevisionService.findRevision(article.getId(), revision);
+
+            Assertions.assertThat(restored.title()).isEqualTo("제목 " + (revision - 1));
+            Assertions.assertThat(restored.content()).isEqualTo(contents.get(revision - 1));
+        }
+
+        // 한 줄만 고친 델타는 본문 전체보다 훨씬 작다
+        ArticleRevision delta = articleRevisionRepository
+                .findByArticleIdAndRevisionBetweenOrderByRevisionAsc(article.getId(), 2, 2).getFirst();
+        Assertions.assertThat(delta.isSnapshot()).isFalse();
+        Assertions.assertThat(delta.getData().length).isLessThan(content.getBytes(StandardCharsets.UTF_8).length / 10);
+    }
+
+    @DisplayName("patch(): 제목만 고치면 본문 델타 없이 리비전을 남기고, 복원하면 본문은 그대로다.")
+    @WithMockUser("user")
+    @Test
+    void findRevision_titleOnly() {
+        String content = "본문 줄\n".repeat(100);
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목 0")
+                .content(content)
+                .build());
+
+        blogService.update(article.getId(), new UpdateArticleRequest("제목 1", content + "추가\n"), null);
+        blogService.patch(article.getId(), new PatchArticleRequest("제목 2", null), null);
+
+        ArticleRevisionResponse restored = articleRevisionService.findRevision(article.getId(), 3);
+        Assertions.assertThat(restored.title()).isEqualTo("제목 2");
+        Assertions.assertThat(restored.content()).isEqualTo(content + "추가\n");
+
+        ArticleRevision titleOnly = articleRevisionRepository
+                .findByArticleIdAndRevisionBetweenOrderByRevisionAsc(article.getId(), 3, 3).getFirst();
+        Assertions.assertThat(titleOnly.getData()).hasSize(1);
+    }
+
+    @DisplayName("findRevision(): 삭제된 글의 리비전은 compaction 전이라도 찾을 수 없다.")
+    @WithMockUser("user")
+    @Test
+    void findRevision_deletedArticle() {
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목 0")
+                .content("내용 0")
+                .build());
+        blogService.update(article.getId(), new UpdateArticleRequest("제목 1", "내용 1"), null);
+
+        Assertions.assertThat(blogService.findRevision(article.getId(), 2).content()).isEqualTo("내용 1");
+
+        blogService.delete(article.getId());
+
+        Assertions.assertThatThrownBy(() -> blogService.findRevision(article.getId(), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> blogService.findRevision(article.getId(), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("update(): 같은 버전으로 동시에 고치면 하나만 성공하고 나머지는 버전 충돌(412)이 난다.")
+    @Test
+    void update_concurrentSameVersion() throws Exception {
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+        Long version = article.getVersion();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 1; i <= 2; i++) {
+                int n = i;
+                results.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext()
+                            .setAuthentication(new UsernamePasswordAuthenticationToken("user", null));
+                    start.await();
+                    return blogService.update(article.getId(), new UpdateArticleRequest("제목 " + n, "내용 " + n), version);
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    Assertions.assertThat(e.getCause()).isInstanceOf(OptimisticLockingFailureException.class);
+                }
+            }
+            Assertions.assertThat(succeeded).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertThat(articleRevisionRepository
+                .findByArticleIdAndRevisionBetweenOrderByRevisionAsc(article.getId(), 1, Integer.MAX_VALUE))
+                .hasSize(2);
+    }
+
+    @DisplayName("findRevision(): 없는 리비전이면 예외가 난다.")
+    @Test
+    void findRevision_notFound() {
+        Assertions.assertThatThrownBy(() -> articleRevisionService.findRevision(Long.MAX_VALUE, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
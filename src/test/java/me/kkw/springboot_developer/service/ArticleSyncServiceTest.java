@@ -0,0 +1,155 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.config.ArticleSyncProperties;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.dto.ArticleChangeResponse;
+import me.kkw.springboot_developer.dto.ArticleChangeToken;
+import me.kkw.springboot_developer.dto.ArticleChangesResponse;
+import me.kkw.springboot_developer.dto.UpdateArticleRequest;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = "article.sync.settle-time=0s")
+public class ArticleSyncServiceTest {
+
+    @Autowired
+    ArticleSyncService articleSyncService;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    ArticleSyncProperties syncProperties;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @DisplayName("findChanges(): 워터마크 이후에 만들어지고, 본문이 고쳐지고, 삭제된 글만 순서대로 내려준다.")
+    @WithMockUser("user")
+    @Test
+    void findChanges() {
+        ArticleChangeToken caughtUp = drain(null);
+
+        Article first = save("첫 글");
+        Article second = save("두 번째 글");
+        Article third = save("세 번째 글");
+
+        ArticleChangesResponse firstPage = articleSyncService.findChanges(caughtUp, 2);
+        ArticleChangesResponse secondPage = articleSyncService.findChanges(
+                ArticleChangeToken.decode(firstPage.nextToken()), 2);
+
+        Assertions.assertThat(firstPage.hasMore()).isTrue();
+        Assertions.assertThat(firstPage.changes()).extracting(ArticleChangeResponse::getId)
+                .containsExactly(first.getId(), second.getId());
+        Assertions.assertThat(secondPage.hasMore()).isFalse();
+        Assertions.assertThat(secondPage.changes()).extracting(ArticleChangeResponse::getId)
+                .containsExactly(third.getId());
+
+        ArticleChangeToken afterCreate = ArticleChangeToken.decode(secondPage.nextToken());
+        blogService.update(first.getId(), new UpdateArticleRequest("첫 글", "고친 내용"), null);
+        blogService.delete(second.getId());
+
+        ArticleChangesResponse changes = articleSyncService.findChanges(afterCreate, 10);
+
+        Assertions.assertThat(changes.changes()).extracting(ArticleChangeResponse::getId)
+                .containsExactly(first.getId(), second.getId());
+        Assertions.assertThat(changes.changes().get(0).getContent()).isEqualTo("고친 내용");
+        Assertions.assertThat(changes.changes().get(0).getVersion()).isGreaterThan(first.getVersion());
+        Assertions.assertThat(changes.changes().get(1).isDeleted()).isTrue();
+        Assertions.assertThat(changes.changes().get(1).getContent()).isNull();
+    }
+
+    @DisplayName("findChanges(): settle-time 안쪽의 변경은 어느 페이지에도 싣지 않아서, 더 이른 시각으로 늦게 커밋된 변경도 놓치지 않는다.")
+    @Test
+    void findChanges_lateCommit() {
+        Duration settleTime = syncProperties.getSettleTime();
+        LocalDateTime now = LocalDateTime.now();
+        ArticleChangeToken since = new ArticleChangeToken(now.minusSeconds(61), 0L);
+
+        Article first = saveAt("첫 글", now.minusSeconds(60));
+        Article second = saveAt("두 번째 글", now.minusSeconds(59));
+        Article third = saveAt("세 번째 글", now.minusSeconds(58));
+        Article recent = saveAt("최근 글", now.minusSeconds(1));
+        Article latest = saveAt("가장 최근 글", now.minusMillis(500));
+        List<Long> ids = new ArrayList<>(List.of(first.getId(), second.getId(), third.getId(),
+                recent.getId(), latest.getId()));
+
+        syncProperties.setSettleTime(Duration.ofSeconds(5));
+        try {
+            List<Long> settled = new ArrayList<>();
+            ArticleChangeToken caughtUp = drain(since, 1, settled);
+
+            Assertions.assertThat(settled).filteredOn(ids::contains)
+                    .containsExactly(first.getId(), second.getId(), third.getId());
+
+            // 최근 글들보다 이른 시각으로 찍혔지만 이제야 커밋된 변경
+            Article late = saveAt("늦게 커밋된 글", now.minusSeconds(2));
+            ids.add(late.getId());
+
+            syncProperties.setSettleTime(Duration.ZERO);
+            List<Long> changed = new ArrayList<>();
+            drain(caughtUp, 1, changed);
+
+            Assertions.assertThat(changed).filteredOn(ids::contains)
+                    .containsExactly(late.getId(), recent.getId(), latest.getId());
+        } finally {
+            syncProperties.setSettleTime(settleTime);
+        }
+    }
+
+    @DisplayName("requiresFullResync(): 삭제 기록 보관 기간보다 오래된 워터마크는 전체 동기화가 필요하다.")
+    @Test
+    void requiresFullResync() {
+        Assertions.assertThat(articleSyncService.requiresFullResync(null)).isFalse();
+        Assertions.assertThat(articleSyncService.requiresFullResync(
+                new ArticleChangeToken(LocalDateTime.now().minusHours(1), 1L))).isFalse();
+        Assertions.assertThat(articleSyncService.requiresFullResync(
+                new ArticleChangeToken(LocalDateTime.now().minusDays(30), 1L))).isTrue();
+    }
+
+    private ArticleChangeToken drain(ArticleChangeToken since) {
+        return drain(since, 500, new ArrayList<>());
+    }
+
+    private ArticleChangeToken drain(ArticleChangeToken since, int size, List<Long> ids) {
+        ArticleChangesResponse page;
+        do {
+            page = articleSyncService.findChanges(since, size);
+            page.changes().forEach(change -> ids.add(change.getId()));
+            since = ArticleChangeToken.decode(page.nextToken());
+        } while (page.hasMore());
+
+        return since;
+    }
+
+    private Article save(String title) {
+        return blogRepository.save(Article.builder()
+                .author("user")
+                .title(title)
+                .content("내용")
+                .build());
+    }
+
+    // auditing이 찍는 updated_at 대신 원하는 시각으로 바꿔 둔다
+    private Article saveAt(String title, LocalDateTime updatedAt) {
+        Article article = save(title);
+        jdbcTemplate.update("UPDATE article SET updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(updatedAt), article.getId());
+        return article;
+    }
+}
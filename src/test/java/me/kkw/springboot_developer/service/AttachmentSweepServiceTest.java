@@ -0,0 +1,72 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.config.AttachmentProperties;
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.Attachment;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+
+@SpringBootTest(properties = "attachment.storage-path=build/test-attachments")
+public class AttachmentSweepServiceTest {
+
+    @Autowired
+    AttachmentSweepService attachmentSweepService;
+
+    @Autowired
+    AttachmentService attachmentService;
+
+    @Autowired
+    AttachmentStore attachmentStore;
+
+    @Autowired
+    AttachmentProperties attachmentProperties;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    Duration gracePeriod;
+
+    @BeforeEach
+    public void setUp() {
+        gracePeriod = attachmentProperties.getOrphanGracePeriod();
+        // 방금 저장한 파일도 정리 대상이 되도록 기준 시각을 미래로 민다
+        attachmentProperties.setOrphanGracePeriod(Duration.ofSeconds(-1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        attachmentProperties.setOrphanGracePeriod(gracePeriod);
+    }
+
+    @DisplayName("sweep(): 아무 글도 가리키지 않는 파일만 지운다.")
+    @WithMockUser("user")
+    @Test
+    void sweep() {
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+        Attachment kept = attachmentService.upload(article.getId(), "kept.txt", "text/plain",
+                new ByteArrayInputStream("남길 파일".getBytes(StandardCharsets.UTF_8)));
+        AttachmentStore.StoredFile orphan = attachmentStore.store(
+                new ByteArrayInputStream("고아 파일".getBytes(StandardCharsets.UTF_8)));
+
+        attachmentSweepService.sweep();
+
+        Assertions.assertThat(Files.exists(attachmentStore.pathOf(orphan.sha256()))).isFalse();
+        Assertions.assertThat(Files.exists(attachmentStore.pathOf(kept.getSha256()))).isTrue();
+    }
+}
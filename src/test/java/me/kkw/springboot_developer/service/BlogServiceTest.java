@@ -0,0 +1,58 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.dto.AddArticleRequest;
+import me.kkw.springboot_developer.respository.TagRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest
+public class BlogServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @DisplayName("save(): 같은 새 태그로 동시에 글을 써도 모두 저장되고 태그는 하나만 생긴다.")
+    @Test
+    void save_sameNewTagConcurrently() throws Exception {
+        String tag = "race-" + UUID.randomUUID();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<Article>> saved = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int n = i;
+                saved.add(executor.submit(() -> {
+                    start.await();
+                    return blogService.save(new AddArticleRequest("제목 " + n, "내용", List.of(tag)), "user");
+                }));
+            }
+            start.countDown();
+
+            for (Future<Article> article : saved) {
+                Assertions.assertThat(article.get().getId()).isNotNull();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertThat(tagRepository.findByNameIn(List.of(tag))).hasSize(1);
+    }
+}
@@ -0,0 +1,99 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.Comment;
+import me.kkw.springboot_developer.dto.AddCommentRequest;
+import me.kkw.springboot_developer.dto.CommentPageResponse;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.temporal.ChronoUnit;
+
+@SpringBootTest
+public class CommentServiceTest {
+
+    @Autowired
+    CommentService commentService;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @DisplayName("save()/delete(): 댓글 수가 같이 바뀌고 글의 버전과 수정 시각은 그대로다.")
+    @WithMockUser("user")
+    @Test
+    void commentCount() {
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+
+        Comment first = commentService.save(article.getId(), new AddCommentRequest("첫 댓글", null), "user");
+        Comment reply = commentService.save(article.getId(), new AddCommentRequest("답글", first.getId()), "user");
+        Comment replyToReply = commentService.save(article.getId(),
+                new AddCommentRequest("답글의 답글", reply.getId()), "user");
+        commentService.save(article.getId(), new AddCommentRequest("두 번째 댓글", null), "user");
+
+        Assertions.assertThat(replyToReply.getParentId()).isEqualTo(first.getId());
+
+        Article commented = blogRepository.findById(article.getId()).orElseThrow();
+        Assertions.assertThat(commented.getCommentCount()).isEqualTo(4);
+        Assertions.assertThat(commented.getVersion()).isEqualTo(article.getVersion());
+        // DB는 마이크로초까지만 저장해서 그 아래 자리는 비교하지 않는다
+        Assertions.assertThat(commented.getUpdatedAt())
+                .isCloseTo(article.getUpdatedAt(), Assertions.within(1, ChronoUnit.MICROS));
+
+        commentService.delete(article.getId(), first.getId());
+
+        Assertions.assertThat(blogRepository.findById(article.getId()).orElseThrow().getCommentCount())
+                .isEqualTo(1);
+    }
+
+    @DisplayName("findComments(): 작성 순서대로 cursor 다음 댓글부터 가져온다.")
+    @Test
+    void findComments() {
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build());
+        for (int i = 1; i <= 5; i++) {
+            commentService.save(article.getId(), new AddCommentRequest("댓글 " + i, null), "user");
+        }
+
+        CommentPageResponse firstPage = new CommentPageResponse(
+                commentService.findComments(article.getId(), null, 3), 3);
+        CommentPageResponse secondPage = new CommentPageResponse(
+                commentService.findComments(article.getId(), firstPage.getNextCursor(), 3), 3);
+
+        Assertions.assertThat(firstPage.getComments())
+                .extracting(comment -> comment.getContent())
+                .containsExactly("댓글 1", "댓글 2", "댓글 3");
+        Assertions.assertThat(secondPage.getComments())
+                .extracting(comment -> comment.getContent())
+                .containsExactly("댓글 4", "댓글 5");
+        Assertions.assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @DisplayName("save(): 삭제된 글에는 댓글을 달 수 없다.")
+    @WithMockUser("user")
+    @Test
+    void save_deletedArticle() {
+        Article article = Article.builder()
+                .author("user")
+                .title("제목")
+                .content("내용")
+                .build();
+        article.delete();
+        Article deleted = blogRepository.save(article);
+
+        Assertions.assertThatThrownBy(() -> commentService.save(deleted.getId(),
+                        new AddCommentRequest("댓글", null), "user"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleEventType;
+import me.kkw.springboot_developer.domain.OutboxEvent;
+import me.kkw.springboot_developer.domain.RefreshToken;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import me.kkw.springboot_developer.respository.OutboxEventRepository;
+import me.kkw.springboot_developer.respository.RefreshTokenRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@SpringBootTest
+public class DatabaseSnapshotServiceTest {
+
+    @Autowired
+    DatabaseSnapshotService databaseSnapshotService;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("export() 후 restore(): 내보낸 뒤에 지운 행이 그대로 돌아오고, 새 id는 기존 id 다음부터 발급된다.")
+    @Test
+    void exportAndRestore() {
+        Path snapshot = directory.resolve("blog.snapshot");
+        Article article = blogRepository.save(Article.builder()
+                .author("user")
+                .title("스냅샷 제목")
+                .content("스냅샷 본문 ".repeat(100))
+                .build());
+        RefreshToken refreshToken = refreshTokenRepository.save(new RefreshToken(Long.MAX_VALUE, "token"));
+
+        long exported = databaseSnapshotService.export(snapshot);
+
+        blogRepository.deleteById(article.getId());
+        refreshTokenRepository.deleteById(refreshToken.getId());
+
+        long restored = databaseSnapshotService.restore(snapshot);
+
+        Assertions.assertThat(restored).isEqualTo(exported);
+        Article restoredArticle = blogRepository.findWithBodyById(article.getId()).orElseThrow();
+        Assertions.assertThat(restoredArticle.getTitle()).isEqualTo("스냅샷 제목");
+        Assertions.assertThat(restoredArticle.getContent()).isEqualTo("스냅샷 본문 ".repeat(100));
+        Assertions.assertThat(refreshTokenRepository.findById(refreshToken.getId())).isPresent();
+
+        Article next = blogRepository.save(Article.builder()
+                .author("user")
+                .title("다음 글")
+                .content("내용")
+                .build());
+        Assertions.assertThat(next.getId()).isGreaterThan(article.getId());
+    }
+
+    @DisplayName("export() 후 restore(): 아웃박스 이벤트 행도 이벤트 종류와 함께 돌아온다.")
+    @Test
+    void exportAndRestore_outboxEvent() {
+        Path snapshot = directory.resolve("blog.snapshot");
+        OutboxEvent event = outboxEventRepository.save(
+                new OutboxEvent("article", Long.MAX_VALUE, 1L, ArticleEventType.UPDATED, "{}"));
+
+        databaseSnapshotService.export(snapshot);
+
+        outboxEventRepository.deleteById(event.getId());
+
+        databaseSnapshotService.restore(snapshot);
+
+        OutboxEvent restored = outboxEventRepository.findById(event.getId()).orElseThrow();
+        Assertions.assertThat(restored.getEventType()).isEqualTo(ArticleEventType.UPDATED);
+        Assertions.assertThat(restored.getAggregateId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @DisplayName("restore(): 체크섬이 맞지 않는 파일은 복원하지 않는다.")
+    @Test
+    void restore_corrupted() throws Exception {
+        Path snapshot = directory.resolve("blog.snapshot");
+        databaseSnapshotService.export(snapshot);
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(snapshot, bytes);
+
+        Assertions.assertThatThrownBy(() -> databaseSnapshotService.restore(snapshot))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("checksum");
+    }
+}
@@ -0,0 +1,79 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleBody;
+import me.kkw.springboot_developer.dto.AddArticleRequest;
+import me.kkw.springboot_developer.respository.ArticleBodyRepository;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+public class MarkdownRerenderServiceTest {
+
+    @Autowired
+    MarkdownRerenderService markdownRerenderService;
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    ArticleBodyRepository articleBodyRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @DisplayName("save(): 저장할 때 마크다운을 안전한 HTML로 렌더링해서 같이 저장한다.")
+    @Test
+    void save_rendersSanitizedHtml() {
+        Article saved = blogService.save(new AddArticleRequest("제목",
+                "# 머리말\n\n<script>alert(1)</script>\n\n[링크](javascript:alert(1))"), "user");
+
+        Article article = blogRepository.findWithBodyById(saved.getId()).orElseThrow();
+
+        Assertions.assertThat(article.getBody().getRendererVersion()).isEqualTo(MarkdownRenderer.VERSION);
+        Assertions.assertThat(article.getHtml())
+                .contains("<h1>머리말</h1>")
+                .contains("&lt;script&gt;")
+                .doesNotContain("<script>")
+                .doesNotContain("javascript:");
+    }
+
+    @DisplayName("rerender(): 렌더링되지 않은 본문을 찾아서 렌더링한다.")
+    @Test
+    void rerender() {
+        ArticleBody body = articleBodyRepository.save(ArticleBody.of("**굵게**"));
+        Assertions.assertThat(body.getRendererVersion()).isNull();
+
+        markdownRerenderService.rerender();
+
+        ArticleBody rendered = articleBodyRepository.findById(body.getId()).orElseThrow();
+        Assertions.assertThat(rendered.getRendererVersion()).isEqualTo(MarkdownRenderer.VERSION);
+        Assertions.assertThat(rendered.getHtml()).contains("<strong>굵게</strong>");
+    }
+
+    @DisplayName("rerender(): 깨진 본문은 실패로 표시하고 나머지 본문은 계속 렌더링한다.")
+    @Test
+    void rerender_corruptedRow() {
+        ArticleBody corrupted = articleBodyRepository.save(ArticleBody.of("깨질 본문"));
+        ArticleBody body = articleBodyRepository.save(ArticleBody.of("*기울임*"));
+        jdbcTemplate.update("UPDATE article_body SET data = X'0000', compressed = TRUE, raw_length = 100 WHERE id = ?",
+                corrupted.getId());
+
+        markdownRerenderService.rerender();
+
+        ArticleBody failed = articleBodyRepository.findById(corrupted.getId()).orElseThrow();
+        Assertions.assertThat(failed.getRendererVersion()).isEqualTo(MarkdownRenderer.VERSION);
+        Assertions.assertThat(failed.getHtml()).isNull();
+
+        ArticleBody rendered = articleBodyRepository.findById(body.getId()).orElseThrow();
+        Assertions.assertThat(rendered.getHtml()).contains("<em>기울임</em>");
+    }
+}
@@ -0,0 +1,163 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.domain.ArticleEventType;
+import me.kkw.springboot_developer.domain.OutboxEvent;
+import me.kkw.springboot_developer.dto.AddArticleRequest;
+import me.kkw.springboot_developer.dto.ArticleChangedEvent;
+import me.kkw.springboot_developer.dto.UpdateArticleRequest;
+import me.kkw.springboot_developer.respository.OutboxEventRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+* 테스트에서는 릴레이가 꺼져 있어서(src/test/resources/application.properties) 여기서만 켜고,
+* 스케줄러가 테스트 도중에 이벤트를 가져가지 않도록 fixed-delay를 길게 두고,
+* 다른 테스트 컨텍스트의 릴레이와 아웃박스를 나눠 쓰지 않도록 DB도 따로 쓴다
+*/
+@SpringBootTest(properties = {
+        "outbox.relay.enabled=true",
+        "outbox.relay.fixed-delay=3600000",
+        "spring.datasource.url=jdbc:h2:mem:outbox-relay-test"
+})
+public class OutboxRelayServiceTest {
+
+    @Autowired
+    BlogService blogService;
+
+    @Autowired
+    OutboxRelayService outboxRelayService;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    CollectingSink collectingSink;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @DisplayName("relay(): 글 저장/수정/삭제 트랜잭션에서 쌓인 이벤트를 순서대로 싱크에 전달하고 아웃박스를 비운다.")
+    @WithMockUser("user")
+    @Test
+    void relay() {
+        outboxRelayService.relay();
+        collectingSink.events.clear();
+
+        Article article = blogService.save(new AddArticleRequest("제목", "내용"), "user");
+        blogService.update(article.getId(), new UpdateArticleRequest("새 제목", "새 내용"), null);
+        blogService.delete(article.getId());
+
+        Assertions.assertThat(outboxEventRepository.count()).isEqualTo(3);
+
+        int relayed = outboxRelayService.relay();
+
+        Assertions.assertThat(relayed).isEqualTo(3);
+        Assertions.assertThat(collectingSink.events)
+                .extracting(ArticleChangedEvent::type)
+                .containsExactly(ArticleEventType.CREATED, ArticleEventType.UPDATED, ArticleEventType.DELETED);
+        Assertions.assertThat(collectingSink.events)
+                .allMatch(event -> event.articleId().equals(article.getId()));
+        Assertions.assertThat(collectingSink.events)
+                .extracting(ArticleChangedEvent::version)
+                .isSorted()
+                .doesNotHaveDuplicates();
+        Assertions.assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @DisplayName("relay(): 전달에 실패하면 lease를 바로 풀고, 다음 실행에서 같은 순서로 다시 보낸다.")
+    @WithMockUser("user")
+    @Test
+    void relay_failureReleasesLease() {
+        outboxRelayService.relay();
+        collectingSink.events.clear();
+
+        Article article = blogService.save(new AddArticleRequest("제목", "내용"), "user");
+        blogService.delete(article.getId());
+
+        collectingSink.failNext = true;
+        Assertions.assertThat(outboxRelayService.relay()).isZero();
+        Assertions.assertThat(outboxEventRepository.findAll())
+                .allMatch(event -> event.getClaimedUntil() == null);
+
+        Assertions.assertThat(outboxRelayService.relay()).isEqualTo(2);
+        Assertions.assertThat(collectingSink.events)
+                .extracting(ArticleChangedEvent::type)
+                .containsExactly(ArticleEventType.CREATED, ArticleEventType.DELETED);
+    }
+
+    @DisplayName("relay(): 같은 글의 더 오래된 이벤트를 다른 릴레이가 가져가 있으면 그 글의 새 이벤트는 보내지 않는다.")
+    @WithMockUser("user")
+    @Test
+    void relay_keepsOrderPerArticle() {
+        outboxRelayService.relay();
+        collectingSink.events.clear();
+
+        Article leased = blogService.save(new AddArticleRequest("다른 릴레이가 가져간 글", "내용"), "user");
+        blogService.delete(leased.getId());
+        Article other = blogService.save(new AddArticleRequest("다른 글", "내용"), "user");
+
+        Long oldest = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().equals(leased.getId()))
+                .map(OutboxEvent::getId)
+                .min(Long::compare)
+                .orElseThrow();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxEventRepository.claim(List.of(oldest), "other-relay", LocalDateTime.now().plusHours(1)));
+
+        Assertions.assertThat(outboxRelayService.relay()).isEqualTo(1);
+        Assertions.assertThat(collectingSink.events)
+                .extracting(ArticleChangedEvent::articleId)
+                .containsExactly(other.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxEventRepository.release(List.of(oldest)));
+        Assertions.assertThat(outboxRelayService.relay()).isEqualTo(2);
+    }
+
+    @DisplayName("append(): 트랜잭션 밖에서는 이벤트를 쌓을 수 없다.")
+    @Test
+    void append_requiresTransaction(@Autowired OutboxService outboxService) {
+        Article article = Article.builder().author("user").title("제목").content("내용").build();
+
+        Assertions.assertThatThrownBy(() -> outboxService.append(article, ArticleEventType.CREATED))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @TestConfiguration
+    static class SinkConfig {
+
+        @Bean
+        CollectingSink collectingSink() {
+            return new CollectingSink();
+        }
+    }
+
+    static class CollectingSink implements OutboxSink {
+
+        final List<ArticleChangedEvent> events = new CopyOnWriteArrayList<>();
+        volatile boolean failNext;
+
+        @Override
+        public void publish(List<ArticleChangedEvent> events) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("sink is down");
+            }
+            this.events.addAll(events);
+        }
+    }
+}
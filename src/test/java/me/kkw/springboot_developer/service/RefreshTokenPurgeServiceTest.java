@@ -0,0 +1,97 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.config.RefreshTokenPurgeProperties;
+import me.kkw.springboot_developer.domain.RefreshToken;
+import me.kkw.springboot_developer.domain.User;
+import me.kkw.springboot_developer.respository.RefreshTokenRepository;
+import me.kkw.springboot_developer.respository.UserRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@SpringBootTest
+public class RefreshTokenPurgeServiceTest {
+
+    @Autowired
+    RefreshTokenPurgeService refreshTokenPurgeService;
+
+    @Autowired
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RefreshTokenPurgeProperties purgeProperties;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @DisplayName("purge(): 만료된 토큰과 주인이 없는 토큰만 지운다.")
+    @Test
+    void purge() {
+        User activeUser = userRepository.save(User.builder()
+                .email("active@email.com")
+                .password("test")
+                .build());
+        User expiredUser = userRepository.save(User.builder()
+                .email("expired@email.com")
+                .password("test")
+                .build());
+
+        RefreshToken valid = refreshTokenRepository.save(new RefreshToken(activeUser.getId(), "valid"));
+        refreshTokenRepository.save(new RefreshToken(expiredUser.getId(), "expired",
+                LocalDateTime.now().minusDays(1)));
+        refreshTokenRepository.save(new RefreshToken(expiredUser.getId() + 1000, "orphan"));
+
+        int purged = refreshTokenPurgeService.purge();
+
+        List<RefreshToken> remaining = refreshTokenRepository.findAll();
+
+        Assertions.assertThat(purged).isEqualTo(2);
+        Assertions.assertThat(remaining).hasSize(1);
+        Assertions.assertThat(remaining.getFirst().getId()).isEqualTo(valid.getId());
+    }
+
+    @DisplayName("purge(): id 사이가 크게 비어 있어도 빈 범위를 훑지 않고 실제 토큰만 배치로 읽는다.")
+    @Timeout(10)
+    @Test
+    void purge_sparseIds() {
+        int batchSize = purgeProperties.getBatchSize();
+        purgeProperties.setBatchSize(1);
+
+        try {
+            User user = userRepository.save(User.builder()
+                    .email("sparse@email.com")
+                    .password("test")
+                    .build());
+            RefreshToken valid = refreshTokenRepository.save(new RefreshToken(user.getId(), "valid"));
+            jdbcTemplate.update("INSERT INTO refresh_token (id, user_id, refresh_token, expires_at) VALUES (?, ?, ?, ?)",
+                    1_000_000_000_000L, user.getId() + 1000, "far", Timestamp.valueOf(LocalDateTime.now().minusDays(1)));
+
+            int purged = refreshTokenPurgeService.purge();
+
+            Assertions.assertThat(purged).isEqualTo(1);
+            Assertions.assertThat(refreshTokenRepository.findAll())
+                    .extracting(RefreshToken::getId)
+                    .containsExactly(valid.getId());
+        } finally {
+            purgeProperties.setBatchSize(batchSize);
+        }
+    }
+}
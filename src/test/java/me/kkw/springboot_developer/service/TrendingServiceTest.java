@@ -0,0 +1,73 @@
+package me.kkw.springboot_developer.service;
+
+import me.kkw.springboot_developer.domain.Article;
+import me.kkw.springboot_developer.dto.TrendingArticleResponse;
+import me.kkw.springboot_developer.respository.BlogRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@SpringBootTest
+public class TrendingServiceTest {
+
+    @Autowired
+    TrendingService trendingService;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @DisplayName("refresh(): 많이 읽힌 글이 앞에 온다.")
+    @Test
+    void refresh() {
+        Article hot = saveArticle("많이 읽힌 글");
+        Article warm = saveArticle("조금 읽힌 글");
+
+        for (int i = 0; i < 1000; i++) {
+            trendingService.recordView(hot.getId());
+        }
+        for (int i = 0; i < 500; i++) {
+            trendingService.recordView(warm.getId());
+        }
+        trendingService.refresh();
+
+        Assertions.assertThat(trendingService.getTrending())
+                .extracting(TrendingArticleResponse::id)
+                .startsWith(hot.getId(), warm.getId());
+    }
+
+    @DisplayName("SpaceSavingSketch: 카운터보다 훨씬 많은 id가 들어와도 자주 나온 id는 남는다.")
+    @Test
+    void spaceSavingSketch_keepsHeavyHitters() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16);
+
+        for (long i = 0; i < 10_000; i++) {
+            sketch.offer(1_000_000 + i);
+            if (i % 4 == 0) {
+                sketch.offer(1);
+            }
+            if (i % 10 == 0) {
+                sketch.offer(2);
+            }
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        sketch.forEach((id, count, error) -> counts.put(id, count));
+
+        Assertions.assertThat(counts).containsKeys(1L, 2L);
+        Assertions.assertThat(counts.get(1L)).isGreaterThanOrEqualTo(2_500);
+        Assertions.assertThat(counts.get(2L)).isGreaterThanOrEqualTo(1_000);
+    }
+
+    private Article saveArticle(String title) {
+        return blogRepository.save(Article.builder()
+                .author("user")
+                .title(title)
+                .content("내용")
+                .build());
+    }
+}